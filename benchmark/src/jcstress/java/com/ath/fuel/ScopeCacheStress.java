@@ -0,0 +1,53 @@
+package com.ath.fuel;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZZ_Result;
+
+/**
+ * Two readers look up a live scope object while a writer primes new ones, among scope objects that are already garbage and
+ * get collected while the readers run -- jcstress churns through enough state for the young GCs to clear them.<br>
+ * Lives next to ScopeCache rather than in stress, the cache is package-private.
+ */
+@JCStressTest
+@Description("Concurrent ScopeCache reads while scope objects are collected")
+@Outcome(id = "true, true, true", expect = Expect.ACCEPTABLE, desc = "Every read found the live scope object's instance")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A read lost the live scope object's instance")
+@State
+public class ScopeCacheStress {
+
+    private static final CacheKey KEY = CacheKey.attain(String.class);
+    private static final int GARBAGE = 8;
+
+    private final ScopeCache cache = new ScopeCache();
+    private final Object live = new Object();
+    private final Object value = new Object();
+
+    public ScopeCacheStress() {
+        cache.put(Scope.Activity, live, KEY, value);
+        for (int i = 0; i < GARBAGE; i++) {
+            cache.put(Scope.Activity, new Object(), KEY, new Object()); // unreachable from here on
+        }
+    }
+
+    @Actor
+    public void get(ZZZ_Result r) {
+        r.r1 = cache.get(Scope.Activity, live, KEY) == value;
+    }
+
+    @Actor
+    public void getAll(ZZZ_Result r) {
+        Object[] found = cache.getAll(new Scope[]{Scope.Activity, Scope.Activity}, new Object[]{live, live}, new CacheKey[]{KEY, KEY});
+        r.r2 = found[0] == value && found[1] == value;
+    }
+
+    @Actor
+    public void primeAndCopy(ZZZ_Result r) {
+        cache.put(Scope.Activity, new Object(), KEY, new Object()); // expunges what was collected
+        r.r3 = cache.getKeys(Scope.Activity, live).size() == 1 && cache.copy().get(Scope.Activity).get(live) != null;
+    }
+}
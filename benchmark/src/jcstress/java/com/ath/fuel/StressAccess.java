@@ -0,0 +1,34 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.Field;
+
+/**
+ * Reach into package-private state so the stress tests can observe it.<br>
+ * Lives with the stress tests, not the library.
+ */
+public final class StressAccess {
+    private StressAccess() {
+    }
+
+    /** What Lazy pre-processing actually calls, cached by type */
+    public static @NonNull Class<?> toLeafType(@NonNull Class<?> type) {
+        return FuelInjector.get().getRootModule().toLeafType(type, CacheKey.DEFAULT_FLAVOR);
+    }
+
+    /** Empty the published bindings' leaf type cache so the next toLeafType has to resolve and publish again */
+    public static void forgetLeafTypes() {
+        try {
+            Field field = FuelModule.class.getDeclaredField("bindings");
+            field.setAccessible(true);
+            ((FuelModule.Bindings) field.get(FuelInjector.get().getRootModule())).leafTypeCache.clear();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static boolean isPreProcessed(@NonNull Lazy<?> lazy) {
+        return Lazy.isPreProcessed(lazy);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ath.fuel.stress;
+
+import android.app.Activity;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.StressAccess;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.Z_Result;
+
+/**
+ * One thread ignites a parent while another attains a Lazy from it.<br>
+ * Whichever wins, the Lazy must end up pre-processed -- either directly or by the ignite dequeuing it.
+ * Lost, it stays queued forever and get() fails with "Never Ignited".
+ */
+@JCStressTest
+@Description("ignite racing enqueueLazy on the same parent")
+@Outcome(id = "true", expect = Expect.ACCEPTABLE, desc = "The Lazy was pre-processed")
+@Outcome(id = "false", expect = Expect.FORBIDDEN, desc = "The Lazy was lost between look-up and enqueue")
+@State
+public class IgniteEnqueueStress {
+    private static final Activity ACTIVITY = StressFuel.newActivity();
+
+    private final StressFuel.Parent parent = new StressFuel.Parent();
+    private Lazy<StressFuel.ObjectThing> lazy;
+
+    @Actor
+    public void ignite() {
+        FuelInjector.get().ignite(ACTIVITY, parent);
+    }
+
+    @Actor
+    public void attain() {
+        lazy = Lazy.attain(parent, StressFuel.ObjectThing.class);
+    }
+
+    @Arbiter
+    public void arbiter(Z_Result r) {
+        r.r1 = StressAccess.isPreProcessed(lazy);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ath.fuel.stress;
+
+import android.app.Activity;
+
+import com.ath.fuel.Lazy;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+/**
+ * Two threads get() the same, not yet resolved, Lazy.<br>
+ * Both must come back with the same instance and the Lazy must keep returning it.
+ */
+@JCStressTest
+@Description("Concurrent Lazy.get() of the same Lazy")
+@Outcome(id = "true, true", expect = Expect.ACCEPTABLE, desc = "Both threads got the one instance the Lazy kept")
+@Outcome(id = "false, .*", expect = Expect.FORBIDDEN, desc = "The threads got different instances")
+@Outcome(id = "true, false", expect = Expect.FORBIDDEN, desc = "The Lazy kept an instance neither thread got")
+@State
+public class LazyGetStress {
+    private static final Activity ACTIVITY = StressFuel.newActivity();
+
+    private final Lazy<StressFuel.ObjectThing> lazy = Lazy.attain(StressFuel.newIgnitedParent(ACTIVITY), StressFuel.ObjectThing.class);
+    private StressFuel.ObjectThing first;
+    private StressFuel.ObjectThing second;
+
+    @Actor
+    public void actor1() {
+        first = lazy.get();
+    }
+
+    @Actor
+    public void actor2() {
+        second = lazy.get();
+    }
+
+    @Arbiter
+    public void arbiter(ZZ_Result r) {
+        r.r1 = first != null && first == second;
+        r.r2 = lazy.get() == first;
+    }
+}
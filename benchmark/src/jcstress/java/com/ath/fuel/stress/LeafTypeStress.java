@@ -0,0 +1,42 @@
+package com.ath.fuel.stress;
+
+import com.ath.fuel.StressAccess;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZZ_Result;
+
+/**
+ * Two threads resolve the same binding chain through the shared leaf type cache while a third empties it.<br>
+ * Every resolution must land on the leaf.
+ */
+@JCStressTest
+@Description("Concurrent toLeafType through the shared cache")
+@Outcome(id = "true, true, true", expect = Expect.ACCEPTABLE, desc = "Every thread resolved the leaf")
+@Outcome(expect = Expect.FORBIDDEN, desc = "Some thread resolved something other than the leaf")
+@State
+public class LeafTypeStress {
+    static {
+        StressFuel.app();
+    }
+
+    @Actor
+    public void resolve1(ZZZ_Result r) {
+        r.r1 = StressAccess.toLeafType(StressFuel.Base.class) == StressFuel.Leaf.class;
+    }
+
+    @Actor
+    public void resolve2(ZZZ_Result r) {
+        r.r2 = StressAccess.toLeafType(StressFuel.Middle.class) == StressFuel.Leaf.class;
+    }
+
+    @Actor
+    public void forget(ZZZ_Result r) {
+        StressAccess.forgetLeafTypes();
+        r.r3 = StressAccess.toLeafType(StressFuel.Base.class) == StressFuel.Leaf.class;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ath.fuel.stress;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.FuelConfigurator;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.Scope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A random binding graph over {@link StressTypes}, the same seed gives the same graph.<br>
+ * Every slot gets a scope, which picks the implementation it resolves to, and a kind of binding:<br>
+ * - Direct: S -> impl<br>
+ * - Chain: S -> T -> impl<br>
+ * - Provider: S -> provider of a new impl per call, scoped by S which is to say Object scope<br>
+ * - Instance: S -> one impl instance<br>
+ * - Reflective: impl bound reflectively, requested as impl
+ */
+@SuppressWarnings("unchecked")
+public final class RandomGraph implements FuelModule.FuelSubmodule {
+
+    enum Kind {
+        Direct, Chain, Provider, Instance, Reflective
+    }
+
+    static final class Slot {
+        final int index;
+        final @NonNull Kind kind;
+        final @NonNull Scope scope; // what Fuel will decide from the leaf type, not necessarily the impl's annotation
+        final @NonNull Class<?> requestType;
+        final @NonNull Class<?> implType;
+
+        Slot(int index, @NonNull Kind kind, @NonNull Scope scope) {
+            this.index = index;
+            this.kind = kind;
+            this.scope = scope;
+            this.implType = type(implPrefix(kind == Kind.Provider ? Scope.Object : scope), index);
+            this.requestType = kind == Kind.Reflective ? implType : type('S', index);
+        }
+
+        boolean isSingleton() {
+            return scope != Scope.Object;
+        }
+
+        @Override public @NonNull String toString() {
+            return "slot " + index + " " + kind + " " + scope + " " + requestType.getSimpleName() + " -> " + implType.getSimpleName();
+        }
+    }
+
+    private static final class ClassProvider implements FuelModule.FuelProvider<Object> {
+        private final @NonNull Class<?> type;
+
+        ClassProvider(@NonNull Class<?> type) {
+            this.type = type;
+        }
+
+        @Override public Object provide(Lazy lazy, Object parent) {
+            return newInstance(type);
+        }
+    }
+
+    private final long seed;
+    private final @NonNull List<Slot> slots;
+    private final @NonNull Map<Integer, Object> boundInstances = new ConcurrentHashMap<>(); // slot index -> what configure bound
+
+    public RandomGraph(long seed) {
+        this.seed = seed;
+        Random random = new Random(seed);
+        List<Slot> slots = new ArrayList<>(StressTypes.SLOTS);
+        Scope[] scopes = {Scope.Application, Scope.Activity, Scope.ViewRoot, Scope.Object}; // Custom needs a begin/end the graph does not model
+        Kind[] kinds = Kind.values();
+        for (int i = 0; i < StressTypes.SLOTS; i++) {
+            Kind kind = kinds[random.nextInt(kinds.length)];
+            Scope scope = kind == Kind.Provider ? Scope.Object : scopes[random.nextInt(scopes.length)];
+            slots.add(new Slot(i, kind, scope));
+        }
+        this.slots = Collections.unmodifiableList(slots);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @NonNull List<Slot> getSlots() {
+        return slots;
+    }
+
+    /** @return the instance an Instance slot was bound to, null for any other kind */
+    @Nullable Object getBoundInstance(@NonNull Slot slot) {
+        return boundInstances.get(slot.index);
+    }
+
+    @Override public void configure(@NonNull FuelConfigurator module) {
+        for (Slot slot : slots) {
+            switch (slot.kind) {
+                case Direct:
+                    module.bind(slot.requestType, slot.implType);
+                    break;
+                case Chain:
+                    module.bind(slot.requestType, type('T', slot.index));
+                    module.bind(type('T', slot.index), slot.implType);
+                    break;
+                case Provider:
+                    module.bind((Class<Object>) slot.requestType, new ClassProvider(slot.implType));
+                    break;
+                case Instance:
+                    Object instance = newInstance(slot.implType);
+                    boundInstances.put(slot.index, instance);
+                    module.bind(slot.requestType, instance);
+                    break;
+                case Reflective:
+                    module.bindReflectively(slot.implType);
+                    break;
+            }
+        }
+    }
+
+    private static char implPrefix(@NonNull Scope scope) {
+        switch (scope) {
+            case Application:
+                return 'A';
+            case Activity:
+                return 'C';
+            case ViewRoot:
+                return 'V';
+            default:
+                return 'O';
+        }
+    }
+
+    private static @NonNull Class<?> type(char prefix, int i) {
+        try {
+            return Class.forName(StressTypes.class.getName() + "$" + prefix + i);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static @NonNull Object newInstance(@NonNull Class<?> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
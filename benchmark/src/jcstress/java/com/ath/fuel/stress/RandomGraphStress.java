@@ -0,0 +1,428 @@
+package com.ath.fuel.stress;
+
+import android.app.Activity;
+import android.app.Application;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.Scope;
+import com.ath.fuel.err.FuelInjectionException;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Randomized stress over a {@link RandomGraph} and a random scope tree: Application -> Activities -> ViewRoots -> Views.<br>
+ * Several threads create and destroy Activities and ViewRoots, attain (eager, deferred or memoized) and get() fresh Lazies and get() Lazies shared
+ * between threads, all at random, while checking:<br>
+ * - one singleton per scope object, per type and flavor<br>
+ * - a type bound to an instance resolves to that instance<br>
+ * - a shared Lazy always returns the same instance<br>
+ * - {@link Scope#canAccess(Scope)} is respected, forbidden access fails and allowed access succeeds<br>
+ * - destroyed Activities and detached ViewRoots are collected once nothing but Fuel refers to them<br>
+ * <br>
+ * Prints throughput per operation and the first few violations of each kind, exits non-zero on any violation.<br>
+ * The seed is printed up front, pass it back in to replay the same graph -- thread interleaving is another matter.<br>
+ * <br>
+ * Usage: RandomGraphStress [seed] [threads] [seconds]
+ */
+public final class RandomGraphStress {
+
+    enum Op {
+        CreateActivity, DestroyActivity, CreateViewRoot, DetachViewRoot, AttainGet, SharedGet
+    }
+
+    enum Violation {
+        TwoSingletons, SharedLazyChanged, WrongType, NotBoundInstance, ForbiddenAccessAllowed, AllowedAccessFailed, ScopeLeaked, Crashed
+    }
+
+    private static final int MAX_ACTIVITIES = 8;
+    private static final int MAX_VIEW_ROOTS = 4;
+    private static final int VIEWS_PER_ROOT = 3;
+    private static final int SHARED_LAZIES = 8;
+    private static final Integer[] FLAVORS = {null, 1, 2};
+    private static final int REPORT_PER_VIOLATION = 5;
+
+    /** Something that holds Lazies, and the scope Fuel will give it */
+    private static final class Holder {
+        final @NonNull Object parent;
+        final @NonNull Scope scope;
+        final @NonNull List<Lazy<?>> shared = new ArrayList<>(); // written before the holder is published
+        final @NonNull Map<Lazy<?>, Object> sharedInstances = new ConcurrentHashMap<>();
+
+        Holder(@NonNull Object parent, @NonNull Scope scope) {
+            this.parent = parent;
+            this.scope = scope;
+        }
+    }
+
+    private static final class ViewRootNode {
+        final @NonNull ViewGroup root;
+        final @NonNull List<Holder> views = new ArrayList<>();
+        final @NonNull Map<String, Object> singletons = new ConcurrentHashMap<>();
+
+        ViewRootNode(@NonNull ViewGroup root) {
+            this.root = root;
+        }
+    }
+
+    private static final class ActivityNode {
+        final @NonNull Activity activity;
+        final @NonNull Holder holder;
+        final @NonNull List<ViewRootNode> viewRoots = new CopyOnWriteArrayList<>();
+        final @NonNull Map<String, Object> singletons = new ConcurrentHashMap<>();
+
+        ActivityNode(@NonNull Activity activity, @NonNull Holder holder) {
+            this.activity = activity;
+            this.holder = holder;
+        }
+    }
+
+    private final @NonNull RandomGraph graph;
+    private final @NonNull Application app;
+    private final @NonNull Holder appHolder;
+    private final @NonNull Map<String, Object> appSingletons = new ConcurrentHashMap<>();
+    private final @NonNull List<ActivityNode> activities = new CopyOnWriteArrayList<>();
+    private final @NonNull List<WeakReference<Object>> ended = new CopyOnWriteArrayList<>();
+
+    private final @NonNull AtomicLongArray opCounts = new AtomicLongArray(Op.values().length);
+    private final @NonNull AtomicLongArray violationCounts = new AtomicLongArray(Violation.values().length);
+    private final @NonNull List<String> violationReports = new CopyOnWriteArrayList<>();
+    private final @NonNull AtomicLong expectedFailures = new AtomicLong();
+
+    private RandomGraphStress(@NonNull RandomGraph graph) {
+        this.graph = graph;
+        this.app = StressFuel.app(graph);
+        this.appHolder = newHolder(StressFuel.newIgnitedParent(app), Scope.Application, new Random(graph.getSeed()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : System.currentTimeMillis();
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        RandomGraph graph = new RandomGraph(seed);
+        System.out.printf(Locale.US, "seed=%s threads=%s seconds=%s%n", seed, threads, seconds);
+        for (RandomGraph.Slot slot : graph.getSlots()) {
+            System.out.println("  " + slot);
+        }
+
+        RandomGraphStress stress = new RandomGraphStress(graph);
+        long elapsedNanos = stress.run(threads, seconds);
+        int leaked = stress.collectEnded();
+        stress.report(elapsedNanos, leaked);
+        System.exit(stress.totalViolations() == 0 ? 0 : 1);
+    }
+
+    private long run(int threads, int seconds) throws InterruptedException {
+        final long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final Random random = new Random(graph.getSeed() * 31 + t);
+            Thread worker = new Thread(new Runnable() {
+                @Override public void run() {
+                    while (System.nanoTime() < deadline) {
+                        step(random);
+                    }
+                }
+            }, "RandomGraphStress-" + t);
+            workers.add(worker);
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void step(@NonNull Random random) {
+        int roll = random.nextInt(100);
+        Op op;
+        if (roll < 3) {
+            op = Op.CreateActivity;
+        } else if (roll < 5) {
+            op = Op.DestroyActivity;
+        } else if (roll < 9) {
+            op = Op.CreateViewRoot;
+        } else if (roll < 12) {
+            op = Op.DetachViewRoot;
+        } else if (roll < 60) {
+            op = Op.AttainGet;
+        } else {
+            op = Op.SharedGet;
+        }
+
+        try {
+            switch (op) {
+                case CreateActivity:
+                    createActivity(random);
+                    break;
+                case DestroyActivity:
+                    destroyActivity(random);
+                    break;
+                case CreateViewRoot:
+                    createViewRoot(random);
+                    break;
+                case DetachViewRoot:
+                    detachViewRoot(random);
+                    break;
+                case AttainGet:
+                    attainGet(random);
+                    break;
+                case SharedGet:
+                    sharedGet(random);
+                    break;
+            }
+            opCounts.incrementAndGet(op.ordinal());
+        } catch (Exception e) {
+            violation(Violation.Crashed, "%s crashed: %s", op, e);
+        }
+    }
+
+    private void createActivity(@NonNull Random random) {
+        if (activities.size() >= MAX_ACTIVITIES) {
+            return;
+        }
+        Activity activity = new Activity();
+        FuelInjector.get().ignite(activity);
+        ActivityNode node = new ActivityNode(activity, newHolder(StressFuel.newIgnitedParent(activity), Scope.Activity, random));
+        activities.add(node);
+    }
+
+    private void destroyActivity(@NonNull Random random) {
+        ActivityNode node = pick(activities, random);
+        if (node == null || !activities.remove(node)) {
+            return; // someone else got it
+        }
+        node.activity.setFinishing(true);
+        for (Application.ActivityLifecycleCallbacks callbacks : app.getActivityLifecycleCallbacks()) {
+            callbacks.onActivityDestroyed(node.activity);
+        }
+        for (ViewRootNode viewRoot : node.viewRoots) {
+            viewRoot.root.dispatchDetachedFromWindow();
+        }
+        ended.add(new WeakReference<Object>(node.activity));
+    }
+
+    private void createViewRoot(@NonNull Random random) {
+        ActivityNode node = pick(activities, random);
+        if (node == null || node.viewRoots.size() >= MAX_VIEW_ROOTS) {
+            return;
+        }
+        ViewGroup root = new ViewGroup(node.activity);
+        FuelInjector.get().igniteViewRoot(root);
+        ViewRootNode viewRoot = new ViewRootNode(root);
+        for (int i = 0; i < VIEWS_PER_ROOT; i++) {
+            View view = new View(node.activity);
+            root.addView(view);
+            FuelInjector.get().ignite(view);
+            viewRoot.views.add(newHolder(view, Scope.ViewRoot, random));
+        }
+        node.viewRoots.add(viewRoot);
+    }
+
+    private void detachViewRoot(@NonNull Random random) {
+        ActivityNode node = pick(activities, random);
+        ViewRootNode viewRoot = node == null ? null : pick(node.viewRoots, random);
+        if (viewRoot == null || !node.viewRoots.remove(viewRoot)) {
+            return;
+        }
+        viewRoot.root.dispatchDetachedFromWindow();
+        ended.add(new WeakReference<Object>(viewRoot.root));
+    }
+
+    private void attainGet(@NonNull Random random) {
+        RandomGraph.Slot slot = graph.getSlots().get(random.nextInt(graph.getSlots().size()));
+        Integer flavor = FLAVORS[random.nextInt(FLAVORS.length)];
+
+        ActivityNode activity = pick(activities, random);
+        ViewRootNode viewRoot = activity == null ? null : pick(activity.viewRoots, random);
+        Holder holder;
+        int level = random.nextInt(3);
+        if (level == 2 && viewRoot != null) {
+            holder = viewRoot.views.get(random.nextInt(viewRoot.views.size()));
+        } else if (level >= 1 && activity != null) {
+            holder = activity.holder;
+            viewRoot = null;
+        } else {
+            holder = appHolder;
+            activity = null;
+            viewRoot = null;
+        }
+
+        Scope target = slot.isSingleton() ? slot.scope : holder.scope; // Object scope inherits the parent's
+        boolean allowed = holder.scope.canAccess(target);
+
+        int attain = random.nextInt(3);
+        Object instance;
+        try {
+            instance = (attain == 0 ? Lazy.attain(holder.parent, slot.requestType, flavor)
+                    : attain == 1 ? Lazy.attainDeferred(holder.parent, slot.requestType, flavor)
+                    : Lazy.attainMemoized(holder.parent, slot.requestType, flavor)).get();
+        } catch (FuelInjectionException e) {
+            if (allowed) {
+                violation(Violation.AllowedAccessFailed, "%s from %s flavor %s: %s", slot, holder.scope, flavor, e);
+            } else {
+                expectedFailures.incrementAndGet();
+            }
+            return;
+        }
+
+        if (!allowed) {
+            violation(Violation.ForbiddenAccessAllowed, "%s from %s flavor %s got %s", slot, holder.scope, flavor, instance);
+            return;
+        }
+        if (!slot.implType.isInstance(instance)) {
+            violation(Violation.WrongType, "%s from %s got %s", slot, holder.scope, instance);
+            return;
+        }
+        Object bound = graph.getBoundInstance(slot);
+        if (bound != null && bound != instance) {
+            violation(Violation.NotBoundInstance, "%s from %s got %s rather than %s", slot, holder.scope, instance, bound);
+            return;
+        }
+        if (slot.isSingleton()) {
+            Map<String, Object> singletons;
+            switch (slot.scope) {
+                case Application:
+                    singletons = appSingletons;
+                    break;
+                case Activity:
+                    singletons = activity.singletons;
+                    break;
+                default:
+                    singletons = viewRoot.singletons;
+                    break;
+            }
+            String key = slot.index + ":" + flavor;
+            Object first = singletons.putIfAbsent(key, instance);
+            if (first != null && first != instance) {
+                violation(Violation.TwoSingletons, "%s flavor %s in %s: %s and %s", slot, flavor, slot.scope, first, instance);
+            }
+        }
+    }
+
+    private void sharedGet(@NonNull Random random) {
+        ActivityNode activity = pick(activities, random);
+        ViewRootNode viewRoot = activity == null ? null : pick(activity.viewRoots, random);
+        Holder holder = viewRoot != null ? viewRoot.views.get(random.nextInt(viewRoot.views.size()))
+                : activity != null ? activity.holder
+                : appHolder;
+        if (holder.shared.isEmpty()) {
+            return;
+        }
+        Lazy<?> lazy = holder.shared.get(random.nextInt(holder.shared.size()));
+        Object instance = lazy.get();
+        Object first = holder.sharedInstances.put(lazy, instance);
+        if (first != null && first != instance) {
+            violation(Violation.SharedLazyChanged, "%s returned %s then %s", lazy, first, instance);
+        }
+    }
+
+    /** A holder with a few Lazies for slots it may access, for the threads to share */
+    private @NonNull Holder newHolder(@NonNull Object parent, @NonNull Scope scope, @NonNull Random random) {
+        Holder holder = new Holder(parent, scope);
+        for (int i = 0; i < SHARED_LAZIES; i++) {
+            RandomGraph.Slot slot = graph.getSlots().get(random.nextInt(graph.getSlots().size()));
+            if (!slot.isSingleton() || scope.canAccess(slot.scope)) {
+                holder.shared.add(Lazy.attain(parent, slot.requestType, FLAVORS[random.nextInt(FLAVORS.length)]));
+            }
+        }
+        return holder;
+    }
+
+    /** @return how many ended scope objects survived collection */
+    private int collectEnded() throws InterruptedException {
+        for (ActivityNode node : new ArrayList<>(activities)) {
+            activities.remove(node);
+            for (ViewRootNode viewRoot : node.viewRoots) {
+                ended.add(new WeakReference<Object>(viewRoot.root));
+            }
+            ended.add(new WeakReference<Object>(node.activity));
+        }
+
+        int leaked = 0;
+        for (int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            Thread.sleep(50);
+            leaked = 0;
+            for (WeakReference<Object> ref : ended) {
+                if (ref.get() != null) {
+                    leaked++;
+                }
+            }
+            if (leaked == 0) {
+                break;
+            }
+        }
+        for (WeakReference<Object> ref : ended) {
+            Object scopeObject = ref.get();
+            if (scopeObject != null) {
+                violation(Violation.ScopeLeaked, "%s survived collection", scopeObject);
+            }
+        }
+        return leaked;
+    }
+
+    private void report(long elapsedNanos, int leaked) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        System.out.println();
+        System.out.printf(Locale.US, "%-16s %12s %12s%n", "op", "count", "ops/s");
+        for (Op op : Op.values()) {
+            long count = opCounts.get(op.ordinal());
+            total += count;
+            System.out.printf(Locale.US, "%-16s %12d %12.0f%n", op, count, count / seconds);
+        }
+        System.out.printf(Locale.US, "%-16s %12d %12.0f%n", "total", total, total / seconds);
+        System.out.printf(Locale.US, "forbidden access refused %s times, %s scope objects ended, %s leaked%n",
+                expectedFailures.get(), ended.size(), leaked);
+
+        System.out.println();
+        for (Violation violation : Violation.values()) {
+            System.out.printf(Locale.US, "%-24s %d%n", violation, violationCounts.get(violation.ordinal()));
+        }
+        for (String line : violationReports) {
+            System.out.println("  " + line);
+        }
+        System.out.println(totalViolations() == 0 ? "PASSED" : "FAILED");
+    }
+
+    private long totalViolations() {
+        long total = 0;
+        for (int i = 0; i < violationCounts.length(); i++) {
+            total += violationCounts.get(i);
+        }
+        return total;
+    }
+
+    private void violation(@NonNull Violation violation, @NonNull String format, Object... args) {
+        long count = violationCounts.incrementAndGet(violation.ordinal());
+        if (count <= REPORT_PER_VIOLATION) {
+            violationReports.add(violation + ": " + String.format(Locale.US, format, args));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable <T> T pick(@NonNull List<T> list, @NonNull Random random) {
+        // copy-on-write lists, a snapshot can't change under us
+        Object[] snapshot = list.toArray();
+        return snapshot.length == 0 ? null : (T) snapshot[random.nextInt(snapshot.length)];
+    }
+}
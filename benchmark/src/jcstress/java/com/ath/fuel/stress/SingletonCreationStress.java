@@ -0,0 +1,46 @@
+package com.ath.fuel.stress;
+
+import android.app.Activity;
+
+import com.ath.fuel.Lazy;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+/**
+ * Two threads attain and get() the same ActivitySingleton from a fresh Activity, so both race to create it.<br>
+ * There must only ever be one, and it must be the one left in the scope cache.
+ */
+@JCStressTest
+@Description("Concurrent creation of the same ActivitySingleton")
+@Outcome(id = "true, true", expect = Expect.ACCEPTABLE, desc = "One singleton, cached")
+@Outcome(id = "false, .*", expect = Expect.FORBIDDEN, desc = "Two singletons for one Activity")
+@Outcome(id = "true, false", expect = Expect.FORBIDDEN, desc = "The cache holds a singleton neither thread got")
+@State
+public class SingletonCreationStress {
+    private final Activity activity = StressFuel.newActivity();
+    private StressFuel.ActivityThing first;
+    private StressFuel.ActivityThing second;
+
+    @Actor
+    public void actor1() {
+        first = Lazy.attain(activity, StressFuel.ActivityThing.class).get();
+    }
+
+    @Actor
+    public void actor2() {
+        second = Lazy.attain(activity, StressFuel.ActivityThing.class).get();
+    }
+
+    @Arbiter
+    public void arbiter(ZZ_Result r) {
+        r.r1 = first != null && first == second;
+        r.r2 = Lazy.attain(activity, StressFuel.ActivityThing.class).get() == first;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ath.fuel.stress;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.ActivitySingleton;
+import com.ath.fuel.AppSingleton;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.Lazy;
+
+/**
+ * Shared fixture for the stress tests.<br>
+ * {@link FuelInjector} is a process wide singleton that can only be ignited once, so every test in the VM shares this module.
+ */
+public final class StressFuel {
+
+    @AppSingleton
+    public static class AppThing {
+    }
+
+    @ActivitySingleton
+    public static class ActivityThing {
+    }
+
+    public static class ObjectThing {
+    }
+
+    public interface Base {
+    }
+
+    public interface Middle extends Base {
+    }
+
+    public static class Leaf implements Middle {
+    }
+
+    /** A parent object that is ignited but not itself a singleton -- the typical Lazy holder */
+    public static class Parent {
+    }
+
+    static final class Module extends FuelModule {
+        private final @Nullable FuelSubmodule extra;
+
+        Module(@NonNull Application app, @Nullable FuelSubmodule extra) {
+            super(app);
+            this.extra = extra;
+        }
+
+        @Override protected void configure(@NonNull Application app) {
+            super.configure(app);
+            if (extra != null) {
+                addModule(extra);
+            }
+            bind(ObjectThing.class, new FuelProvider<ObjectThing>() {
+                @Override public ObjectThing provide(Lazy lazy, Object parent) {
+                    return new ObjectThing();
+                }
+            });
+            bind(Base.class, Middle.class);
+            bind(Middle.class, Leaf.class);
+        }
+
+        /** Singletons are unbound on purpose, construct them quietly */
+        @SuppressWarnings("unchecked")
+        @Override protected @Nullable <T> T onInstanceUnattainable(@NonNull Lazy<T> lazy) {
+            return (T) REFLECTIVE_PROVIDER.provide(lazy, null);
+        }
+    }
+
+    private static Application app;
+
+    private StressFuel() {
+    }
+
+    public static @NonNull Application app() {
+        return app(null);
+    }
+
+    /**
+     * @param extra bindings to add to the root module, only honored by the first call in the VM
+     */
+    public static synchronized @NonNull Application app(@Nullable FuelModule.FuelSubmodule extra) {
+        if (app == null) {
+            app = new Application();
+            FuelInjector.get().ignite(app, new Module(app, extra));
+        }
+        return app;
+    }
+
+    public static @NonNull Activity newActivity() {
+        app();
+        Activity activity = new Activity();
+        FuelInjector.get().ignite(activity);
+        return activity;
+    }
+
+    public static @NonNull Parent newIgnitedParent(@NonNull Context context) {
+        Parent parent = new Parent();
+        FuelInjector.get().ignite(context, parent);
+        return parent;
+    }
+}
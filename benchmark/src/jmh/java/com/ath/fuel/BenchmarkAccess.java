@@ -0,0 +1,27 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Reach into package-private resolution so the benchmarks can time it in isolation.<br>
+ * Lives with the benchmarks, not the library.
+ */
+public final class BenchmarkAccess {
+    private BenchmarkAccess() {
+    }
+
+    /** FuelModule.configure the way FuelInjector.ignite runs it, publishing its bindings once */
+    public static void configure(@NonNull FuelModule module) {
+        module.configureBindings(module.getApplication());
+    }
+
+    /** The uncached walk of the binding chain */
+    public static @NonNull Class<?> getType(@NonNull FuelModule module, @NonNull Class<?> type) {
+        return module.getType(type, CacheKey.DEFAULT_FLAVOR);
+    }
+
+    /** What Lazy pre-processing actually calls, cached by type */
+    public static @NonNull Class<?> toLeafType(@NonNull FuelModule module, @NonNull Class<?> type) {
+        return module.toLeafType(type, CacheKey.DEFAULT_FLAVOR);
+    }
+}
@@ -0,0 +1,193 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+import android.app.Application;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.ActivitySingleton;
+import com.ath.fuel.AppSingleton;
+import com.ath.fuel.BenchmarkAccess;
+import com.ath.fuel.Attain;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.ViewRootSingleton;
+
+/**
+ * Shared fixture for the benchmarks.<br>
+ * {@link FuelInjector} is a process wide singleton that can only be ignited once, JMH forks a fresh JVM per benchmark
+ * so each benchmark gets its own module.
+ */
+public final class BenchmarkFuel {
+
+    @AppSingleton
+    public static class AppThing {
+    }
+
+    @ActivitySingleton
+    public static class ActivityThing {
+    }
+
+    @ViewRootSingleton
+    public static class ViewRootThing {
+    }
+
+    public static class ObjectThing {
+    }
+
+    public interface Reflective {
+    }
+
+    /** Constructed reflectively through its only constructor, no empty one */
+    public static class ArgThing {
+        public ArgThing(AppThing app) {
+        }
+    }
+
+    public static class ReflectiveImpl implements Reflective {
+    }
+
+    public interface Provided {
+    }
+
+    public static class ProvidedImpl implements Provided {
+    }
+
+    public interface Instance {
+    }
+
+    public static class InstanceImpl implements Instance {
+    }
+
+    /** A parent object that is ignited but not itself a singleton -- the typical Lazy holder */
+    public static class Parent {
+    }
+
+    /** A heavy View's worth of Lazies, 16 field initializers */
+    public static class HeavyParent {
+        final Lazy<AppThing> thing0 = Lazy.attain(this, AppThing.class);
+        final Lazy<ActivityThing> thing1 = Lazy.attain(this, ActivityThing.class);
+        final Lazy<ObjectThing> thing2 = Lazy.attain(this, ObjectThing.class);
+        final Lazy<Reflective> thing3 = Lazy.attain(this, Reflective.class);
+        final Lazy<AppThing> thing4 = Lazy.attain(this, AppThing.class);
+        final Lazy<ActivityThing> thing5 = Lazy.attain(this, ActivityThing.class);
+        final Lazy<ObjectThing> thing6 = Lazy.attain(this, ObjectThing.class);
+        final Lazy<Reflective> thing7 = Lazy.attain(this, Reflective.class);
+        final Lazy<AppThing> thing8 = Lazy.attain(this, AppThing.class);
+        final Lazy<ActivityThing> thing9 = Lazy.attain(this, ActivityThing.class);
+        final Lazy<ObjectThing> thing10 = Lazy.attain(this, ObjectThing.class);
+        final Lazy<Reflective> thing11 = Lazy.attain(this, Reflective.class);
+        final Lazy<AppThing> thing12 = Lazy.attain(this, AppThing.class);
+        final Lazy<ActivityThing> thing13 = Lazy.attain(this, ActivityThing.class);
+        final Lazy<ObjectThing> thing14 = Lazy.attain(this, ObjectThing.class);
+        final Lazy<Reflective> thing15 = Lazy.attain(this, Reflective.class);
+    }
+
+    /** {@link HeavyParent} with its Lazies as {@link Attain} fields */
+    public static class HeavyAttainParent {
+        @Attain Lazy<AppThing> thing0;
+        @Attain Lazy<ActivityThing> thing1;
+        @Attain Lazy<ObjectThing> thing2;
+        @Attain Lazy<Reflective> thing3;
+        @Attain Lazy<AppThing> thing4;
+        @Attain Lazy<ActivityThing> thing5;
+        @Attain Lazy<ObjectThing> thing6;
+        @Attain Lazy<Reflective> thing7;
+        @Attain Lazy<AppThing> thing8;
+        @Attain Lazy<ActivityThing> thing9;
+        @Attain Lazy<ObjectThing> thing10;
+        @Attain Lazy<Reflective> thing11;
+        @Attain Lazy<AppThing> thing12;
+        @Attain Lazy<ActivityThing> thing13;
+        @Attain Lazy<ObjectThing> thing14;
+        @Attain Lazy<Reflective> thing15;
+    }
+
+    public static final class Module extends FuelModule {
+        private final @Nullable FuelSubmodule extra;
+
+        public Module(@NonNull Application app, @Nullable FuelSubmodule extra) {
+            super(app);
+            this.extra = extra;
+        }
+
+        @Override protected void configure(@NonNull Application app) {
+            super.configure(app);
+            if (extra != null) {
+                addModule(extra);
+            }
+            bindReflectively(ObjectThing.class);
+            bindReflectively(ArgThing.class);
+            bind(Reflective.class, ReflectiveImpl.class);
+            bindReflectively(ReflectiveImpl.class);
+            bind(Provided.class, new FuelProvider<ProvidedImpl>() {
+                @Override public ProvidedImpl provide(Lazy lazy, Object parent) {
+                    return new ProvidedImpl();
+                }
+            });
+            bind(Instance.class, new InstanceImpl());
+        }
+
+        /** Lets the startup benchmarks drive configuration the same way FuelInjector.ignite would */
+        public void configure() {
+            BenchmarkAccess.configure(this);
+        }
+
+        /** Lets the startup benchmarks drive configuration the same way a host FuelModule would */
+        public void addSubmodule(@NonNull FuelSubmodule submodule) {
+            addModule(submodule);
+        }
+
+        /** Same but configured the first time one of its keys is resolved */
+        public void addSubmodule(@NonNull FuelSubmodule submodule, @NonNull Class<?>... keys) {
+            addModule(submodule, keys);
+        }
+    }
+
+    private static Application app;
+
+    private BenchmarkFuel() {
+    }
+
+    public static @NonNull Application app() {
+        return app(null);
+    }
+
+    /**
+     * @param extra bindings to add to the root module, only honored by the first call in the JVM
+     */
+    public static synchronized @NonNull Application app(@Nullable FuelModule.FuelSubmodule extra) {
+        if (app == null) {
+            app = new Application();
+            FuelInjector.get().ignite(app, new Module(app, extra));
+        }
+        return app;
+    }
+
+    public static @NonNull Activity newActivity() {
+        app();
+        Activity activity = new Activity();
+        FuelInjector.get().ignite(activity);
+        return activity;
+    }
+
+    /** @return a child view living under a freshly ignited ViewRoot */
+    public static @NonNull View newViewUnderViewRoot(@NonNull Activity activity) {
+        ViewGroup root = new ViewGroup(activity);
+        FuelInjector.get().igniteViewRoot(root);
+        View child = new View(activity);
+        root.addView(child);
+        FuelInjector.get().ignite(child);
+        return child;
+    }
+
+    public static @NonNull Parent newIgnitedParent(@NonNull android.content.Context context) {
+        Parent parent = new Parent();
+        FuelInjector.get().ignite(context, parent);
+        return parent;
+    }
+}
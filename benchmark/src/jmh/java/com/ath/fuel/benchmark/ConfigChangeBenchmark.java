@@ -0,0 +1,107 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import com.ath.fuel.ActivitySingleton;
+import com.ath.fuel.Attain;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A rotation of a screen with 8 ActivitySingletons: the old Activity saves its state and is destroyed, the new one is
+ * created, ignited and gets every singleton, with and without {@link com.ath.fuel.FuelModule#setRetainActivitySingletons}.<br>
+ * Each singleton burns tens of microseconds of CPU in its constructor to stand in for the real work a screen's singletons do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ConfigChangeBenchmark {
+
+    private static final long WORK = 20000; // Blackhole tokens per singleton, tens of microseconds
+
+    @ActivitySingleton public static class Singleton0 { public Singleton0() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton1 { public Singleton1() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton2 { public Singleton2() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton3 { public Singleton3() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton4 { public Singleton4() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton5 { public Singleton5() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton6 { public Singleton6() { Blackhole.consumeCPU(WORK); } }
+    @ActivitySingleton public static class Singleton7 { public Singleton7() { Blackhole.consumeCPU(WORK); } }
+
+    public static class Screen {
+        @Attain Lazy<Singleton0> singleton0;
+        @Attain Lazy<Singleton1> singleton1;
+        @Attain Lazy<Singleton2> singleton2;
+        @Attain Lazy<Singleton3> singleton3;
+        @Attain Lazy<Singleton4> singleton4;
+        @Attain Lazy<Singleton5> singleton5;
+        @Attain Lazy<Singleton6> singleton6;
+        @Attain Lazy<Singleton7> singleton7;
+
+        void getAll(Blackhole bh) {
+            bh.consume(singleton0.get());
+            bh.consume(singleton1.get());
+            bh.consume(singleton2.get());
+            bh.consume(singleton3.get());
+            bh.consume(singleton4.get());
+            bh.consume(singleton5.get());
+            bh.consume(singleton6.get());
+            bh.consume(singleton7.get());
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean retain;
+
+    private Application app;
+    private Activity activity;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        app = BenchmarkFuel.app();
+        FuelInjector.get().getRootModule().setRetainActivitySingletons(retain);
+        activity = create(null);
+    }
+
+    @Benchmark
+    public void rotate(Blackhole bh) {
+        Activity old = activity;
+        old.setChangingConfigurations(true);
+        Bundle state = new Bundle();
+        for (Application.ActivityLifecycleCallbacks callbacks : app.getActivityLifecycleCallbacks()) {
+            callbacks.onActivitySaveInstanceState(old, state);
+            callbacks.onActivityDestroyed(old);
+        }
+        activity = create(state);
+        Screen screen = new Screen();
+        FuelInjector.get().ignite(activity, screen);
+        screen.getAll(bh);
+        for (Application.ActivityLifecycleCallbacks callbacks : app.getActivityLifecycleCallbacks()) {
+            callbacks.onActivityResumed(activity);
+        }
+    }
+
+    private Activity create(Bundle savedInstanceState) {
+        Activity created = new Activity();
+        for (Application.ActivityLifecycleCallbacks callbacks : app.getActivityLifecycleCallbacks()) {
+            callbacks.onActivityCreated(created, savedInstanceState);
+        }
+        FuelInjector.get().ignite(created);
+        return created;
+    }
+}
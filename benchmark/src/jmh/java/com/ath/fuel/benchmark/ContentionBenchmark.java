@@ -0,0 +1,113 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.benchmark.BenchmarkFuel.ActivityThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.AppThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.ObjectThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Contention on the shared structures every injection goes through:<br>
+ * - FuelModule.cacheLock -- read on every cached get, write on every new singleton<br>
+ * - synchronized(lazy.getLeafType()) -- every singleton construction of the same type, regardless of scope object<br>
+ * - synchronized(parent) in FuelInjector.enqueueLazy -- attains against a parent that has not been ignited yet<br>
+ * <br>
+ * Thread count is not fixed here, {@link ContentionRunner} sweeps 1..16 threads and reports scaling and tail latency.
+ * Running this class directly with -t N works too.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentionBenchmark {
+
+    /** Shared by every thread: the same scope objects */
+    @State(Scope.Benchmark)
+    public static class Shared {
+        private static final int ATTAINS_PER_PENDING_PARENT = 64;
+
+        Activity activity;
+        Parent activityParent;
+        Parent appParent;
+        final AtomicReference<Parent> pendingParent = new AtomicReference<>(new Parent());
+        final AtomicInteger pendingAttains = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            activity = BenchmarkFuel.newActivity();
+            activityParent = BenchmarkFuel.newIgnitedParent(activity);
+            appParent = BenchmarkFuel.newIgnitedParent(BenchmarkFuel.app());
+            Lazy.attain(activityParent, ActivityThing.class).get(); // cached from here on
+            Lazy.attain(appParent, AppThing.class).get();
+        }
+
+        /** Never ignited, swapped out regularly so the queue doesn't grow for the whole run */
+        Parent pendingParent() {
+            if (pendingAttains.incrementAndGet() % ATTAINS_PER_PENDING_PARENT == 0) {
+                pendingParent.set(new Parent());
+            }
+            return pendingParent.get();
+        }
+    }
+
+    /** Cached singleton from the same Activity on every thread -- cacheLock read side */
+    @Benchmark
+    public Object sameScopeCachedSingleton(Shared shared) {
+        return Lazy.attain(shared.activityParent, ActivityThing.class).get();
+    }
+
+    /** New Activity per op so every get constructs -- cacheLock write side and synchronized(leafType) */
+    @Benchmark
+    public Object distinctScopeNewSingleton(Blackhole blackhole) {
+        Activity activity = BenchmarkFuel.newActivity();
+        Parent parent = BenchmarkFuel.newIgnitedParent(activity);
+        Object out = Lazy.attain(parent, ActivityThing.class).get();
+        // Fuel only holds scope objects weakly, keep them reachable until the get completes just like a live Activity would be
+        blackhole.consume(activity);
+        blackhole.consume(parent);
+        return out;
+    }
+
+    /** Every thread attains against the same not-yet-ignited parent -- synchronized(parent) in enqueueLazy */
+    @Benchmark
+    public Object sameParentEnqueue(Shared shared) {
+        return Lazy.attain(shared.pendingParent(), AppThing.class);
+    }
+
+    /** Main-thread style: inflate + ignite a View and inject an ActivitySingleton and a POJO */
+    @Benchmark
+    @Group("mixed")
+    public Object mixedMain(Shared shared, Blackhole blackhole) {
+        View view = new View(shared.activity);
+        FuelInjector.get().ignite(view);
+        Lazy.attain(view, ObjectThing.class).get();
+        Object out = Lazy.attain(view, ActivityThing.class).get();
+        blackhole.consume(view); // parents are held weakly, keep it reachable until we're done
+        return out;
+    }
+
+    /** Background style: AppSingleton and POJO injection from workers, racing the main thread for the same locks */
+    @Benchmark
+    @Group("mixed")
+    public Object mixedBackground(Shared shared) {
+        Lazy.attain(shared.appParent, ObjectThing.class).get();
+        return Lazy.attain(shared.appParent, AppThing.class).get();
+    }
+}
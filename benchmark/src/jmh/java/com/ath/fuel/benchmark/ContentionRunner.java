@@ -0,0 +1,137 @@
+package com.ath.fuel.benchmark;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs {@link ContentionBenchmark} at 1, 2, 4, 8 and 16 threads and prints one table:
+ * throughput, scaling relative to one thread and sample-time percentiles.<br>
+ * <br>
+ * For the "mixed" group one thread plays the main thread and the rest are background workers,
+ * so at 1 thread the group still runs with 1 main + 1 background.<br>
+ * <br>
+ * gradle jmhContention [-Pthreads=1,4,16]
+ */
+public final class ContentionRunner {
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8, 16};
+
+    private static final class Row {
+        final int threads;
+        final String benchmark;
+        final double opsPerUs;
+        final double p50;
+        final double p99;
+        final double p999;
+
+        Row(int threads, String benchmark, double opsPerUs, double p50, double p99, double p999) {
+            this.threads = threads;
+            this.benchmark = benchmark;
+            this.opsPerUs = opsPerUs;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+    }
+
+    private ContentionRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = args.length > 0 ? parse(args[0]) : DEFAULT_THREADS;
+
+        List<Row> rows = new ArrayList<>();
+        for (int threads : threadCounts) {
+            String benchmark = ContentionBenchmark.class.getSimpleName();
+            rows.addAll(toRows(threads, run(options()
+                    .include(benchmark + "\\.(same|distinct)")
+                    .threads(threads))));
+            rows.addAll(toRows(threads, run(options()
+                    .include(benchmark + "\\.mixed")
+                    .threadGroups(1, Math.max(1, threads - 1)))));
+        }
+        print(rows);
+    }
+
+    private static ChainedOptionsBuilder options() {
+        return new OptionsBuilder()
+                .forks(1)
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(2));
+    }
+
+    private static Collection<RunResult> run(ChainedOptionsBuilder options) throws RunnerException {
+        return new Runner(options.build()).run();
+    }
+
+    private static List<Row> toRows(int threads, Collection<RunResult> results) {
+        List<Row> throughput = new ArrayList<>();
+        List<Row> rows = new ArrayList<>();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            Result primary = result.getPrimaryResult();
+            switch (result.getParams().getMode()) {
+                case Throughput:
+                    throughput.add(new Row(threads, name, primary.getScore(), 0, 0, 0));
+                    break;
+                case SampleTime:
+                    Statistics stats = primary.getStatistics();
+                    rows.add(new Row(threads, name, 0, stats.getPercentile(50), stats.getPercentile(99), stats.getPercentile(99.9)));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // pair each SampleTime row with its Throughput score
+        List<Row> out = new ArrayList<>();
+        for (Row latency : rows) {
+            double ops = 0;
+            for (Row t : throughput) {
+                if (t.benchmark.equals(latency.benchmark)) {
+                    ops = t.opsPerUs;
+                }
+            }
+            out.add(new Row(threads, latency.benchmark, ops, latency.p50, latency.p99, latency.p999));
+        }
+        return out;
+    }
+
+    private static void print(List<Row> rows) {
+        System.out.println();
+        System.out.println(String.format(Locale.US, "%-28s %7s %12s %8s %10s %10s %10s",
+                "Benchmark", "Threads", "ops/us", "scaling", "p50 us", "p99 us", "p99.9 us"));
+        for (Row row : rows) {
+            double single = 0;
+            for (Row other : rows) {
+                if (other.benchmark.equals(row.benchmark) && single == 0) {
+                    single = other.opsPerUs; // first row for the benchmark is the lowest thread count
+                }
+            }
+            System.out.println(String.format(Locale.US, "%-28s %7d %12.3f %7.2fx %10.3f %10.3f %10.3f",
+                    row.benchmark, row.threads, row.opsPerUs, single == 0 ? 0 : row.opsPerUs / single, row.p50, row.p99, row.p999));
+        }
+    }
+
+    private static int[] parse(String csv) {
+        String[] parts = csv.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            out[i] = Integer.parseInt(parts[i].trim());
+        }
+        return out;
+    }
+}
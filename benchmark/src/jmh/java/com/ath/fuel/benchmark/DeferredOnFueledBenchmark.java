@@ -0,0 +1,89 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.DeferOnFueled;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.IdleScheduler;
+import com.ath.fuel.OnFueled;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The frame an inflation lands in: 16 ignited objects whose onFueled burns a few microseconds each, called right away and
+ * deferred with {@link com.ath.fuel.FuelModule#setIdleScheduler(IdleScheduler)}.<br>
+ * The idle scheduler here queues the drain for the end of the invocation, outside of what's measured, the "next idle".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DeferredOnFueledBenchmark {
+
+    private static final int VIEWS = 16;
+    private static final long WORK = 2000; // Blackhole tokens per onFueled
+
+    public static class Fueled implements OnFueled {
+        @Override public void onFueled() {
+            Blackhole.consumeCPU(WORK);
+        }
+    }
+
+    @DeferOnFueled
+    public static class DeferredFueled extends Fueled {
+    }
+
+    @Param({"false", "true"})
+    public boolean defer;
+
+    private final Queue<Runnable> idle = new ArrayDeque<>();
+    private final Object[] views = new Object[VIEWS]; // held like a view hierarchy would, Fuel only holds ignited objects weakly
+    private Activity activity;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        activity = BenchmarkFuel.newActivity();
+        if (defer) {
+            FuelInjector.get().getRootModule().setIdleScheduler(new IdleScheduler() {
+                @Override public void scheduleIdle(@NonNull Runnable task) {
+                    idle.add(task);
+                }
+
+                @Override public boolean isSchedulerThread() {
+                    return true; // the idle tasks run on the benchmark thread
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void frame() {
+        for (int i = 0; i < VIEWS; i++) {
+            views[i] = defer ? new DeferredFueled() : new Fueled();
+            FuelInjector.get().ignite(activity, views[i]);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void idle() {
+        Runnable task;
+        while ((task = idle.poll()) != null) {
+            task.run();
+        }
+    }
+}
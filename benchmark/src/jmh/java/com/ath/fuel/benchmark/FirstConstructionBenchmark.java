@@ -0,0 +1,56 @@
+package com.ath.fuel.benchmark;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First resolution + construction of every synthetic key through Lazy.attain + get, the way a cold app start would.<br>
+ * One measured invocation per fork with no warmup so every number is a genuinely cold first pass.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class FirstConstructionBenchmark {
+
+    @Param({"100", "1000", "2500", "5000", "10000"})
+    public int keys;
+
+    private List<Class<?>> requestTypes;
+    private Parent parent;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticBindings bindings = new SyntheticBindings(keys);
+        requestTypes = bindings.requestTypes();
+        parent = new Parent();
+        FuelInjector.get().ignite(BenchmarkFuel.app(bindings), parent);
+    }
+
+    @Benchmark
+    public void attainGetEach(Blackhole blackhole) {
+        for (Class<?> type : requestTypes) {
+            blackhole.consume(Lazy.attain(parent, type).get());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.benchmark.BenchmarkFuel.ActivityThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.AppThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.ObjectThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Retained bytes Fuel adds per Lazy, per ignited parent and per Activity scope, measured with JOL.<br>
+ * <br>
+ * Each case runs in its own VM. Every number is a delta: the object graph reachable from Fuel (injector, root module) plus the objects under test is
+ * walked before and after creating {@code count} of them, and the difference is divided by {@code count}.
+ * That bills everything Fuel allocates on their behalf -- the Lazy, its WeakReferences, lazyCache, preprocessQueue
+ * and scope cache entries, the injected instances -- and nothing that was already there.<br>
+ * <br>
+ * Layouts depend on the VM (compressed oops, alignment) so the VM details are printed first.
+ * Run with: gradle footprint
+ */
+public final class FootprintReport {
+    private static final int COUNT = 2000;
+
+    /** A typical Lazy holder, N Lazies declared as fields */
+    static final class Holder {
+        final List<Lazy<?>> lazies = new ArrayList<>();
+    }
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println(VM.current().details());
+            System.out.println(String.format(Locale.US, "%-56s %12s", "Case", "bytes/each"));
+            for (String name : CASES) {
+                fork(name);
+            }
+            return;
+        }
+
+        BenchmarkFuel.app();
+        String name = args[0];
+        String[] parts = name.split(":");
+        double bytes;
+        switch (parts[0]) {
+            case "lazyPojo":
+                bytes = perResolvedLazy(ObjectThing.class);
+                break;
+            case "lazyAppSingleton":
+                bytes = perResolvedLazy(AppThing.class);
+                break;
+            case "lazyActivitySingleton":
+                bytes = perResolvedLazy(ActivityThing.class);
+                break;
+            case "lazyPending":
+                bytes = perPendingLazy();
+                break;
+            case "parentFields":
+                bytes = perIgnitedParent(Integer.parseInt(parts[1]));
+                break;
+            case "activitySingletons":
+                bytes = perActivityScope(Integer.parseInt(parts[1]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown case " + name);
+        }
+        System.out.println(String.format(Locale.US, "%-56s %12.1f", describe(parts), bytes));
+    }
+
+    private static final String[] CASES = {
+            "lazyPojo", "lazyAppSingleton", "lazyActivitySingleton", "lazyPending",
+            "parentFields:1", "parentFields:5", "parentFields:10", "parentFields:20",
+            "activitySingletons:1", "activitySingletons:10", "activitySingletons:50", "activitySingletons:100",
+    };
+
+    private static String describe(String[] parts) {
+        switch (parts[0]) {
+            case "lazyPojo":
+                return "Lazy<POJO> resolved, on an ignited parent";
+            case "lazyAppSingleton":
+                return "Lazy<AppSingleton> resolved, on an ignited parent";
+            case "lazyActivitySingleton":
+                return "Lazy<ActivitySingleton> resolved, on an ignited parent";
+            case "lazyPending":
+                return "Lazy<AppSingleton> pending, parent not ignited";
+            case "parentFields":
+                return "ignited parent with " + parts[1] + " resolved Lazy fields";
+            default:
+                return "Activity scope with " + parts[1] + " ActivitySingletons";
+        }
+    }
+
+    /** Fuel is a process wide singleton, a fresh VM per case keeps one case's leftovers out of the next case's numbers */
+    private static void fork(String name) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("-D") || arg.startsWith("-X")) {
+                command.add(arg);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FootprintReport.class.getName());
+        command.add(name);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String line;
+        String last = null;
+        while ((line = reader.readLine()) != null) {
+            last = line; // JOL and the VM chatter on the way in, the result is the last line
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Footprint case " + name + " failed: " + last);
+        }
+        System.out.println(last);
+    }
+
+    /** What's reachable from Fuel plus whatever the case is holding on to */
+    private static long retained(Object held) {
+        System.gc(); // let WeakHashMaps expunge anything left over from the previous case
+        return GraphLayout.parseInstance(FuelInjector.get(), FuelInjector.get().getRootModule(), held).totalSize();
+    }
+
+    private static double perResolvedLazy(Class<?> type) {
+        Activity activity = BenchmarkFuel.newActivity();
+        Parent parent = BenchmarkFuel.newIgnitedParent(activity);
+        Lazy.attain(parent, type).get(); // singletons are paid for once, not per Lazy
+        List<Object> held = new ArrayList<>();
+        held.add(activity);
+        held.add(parent);
+
+        long before = retained(held);
+        for (int i = 0; i < COUNT; i++) {
+            Lazy<?> lazy = Lazy.attain(parent, type);
+            lazy.get();
+            held.add(lazy);
+        }
+        return (retained(held) - before) / (double) COUNT;
+    }
+
+    private static double perPendingLazy() {
+        Lazy.attain(new Parent(), AppThing.class); // one-time type caches aren't per Lazy
+        Parent parent = new Parent();
+        List<Object> held = new ArrayList<>();
+        held.add(parent);
+
+        long before = retained(held);
+        for (int i = 0; i < COUNT; i++) {
+            held.add(Lazy.attain(parent, AppThing.class));
+        }
+        return (retained(held) - before) / (double) COUNT;
+    }
+
+    private static double perIgnitedParent(int fields) {
+        Activity activity = BenchmarkFuel.newActivity();
+        List<Object> held = new ArrayList<>();
+        held.add(activity);
+        held.add(newHolder(activity, fields)); // one-time type caches and the AppSingleton itself aren't per parent
+
+        long before = retained(held);
+        for (int i = 0; i < COUNT; i++) {
+            held.add(newHolder(activity, fields));
+        }
+        return (retained(held) - before) / (double) COUNT;
+    }
+
+    private static Holder newHolder(Activity activity, int fields) {
+        Holder holder = new Holder();
+        for (int f = 0; f < fields; f++) {
+            holder.lazies.add(Lazy.attain(holder, AppThing.class));
+        }
+        FuelInjector.get().ignite(activity, holder);
+        for (Lazy<?> lazy : holder.lazies) {
+            lazy.get();
+        }
+        return holder;
+    }
+
+    private static double perActivityScope(int singletons) {
+        int activities = Math.max(10, COUNT / singletons);
+        List<Object> held = new ArrayList<>();
+        newActivityScope(held, singletons); // one-time type caches aren't per Activity
+
+        long before = retained(held);
+        for (int a = 0; a < activities; a++) {
+            newActivityScope(held, singletons);
+        }
+        return (retained(held) - before) / (double) activities;
+    }
+
+    private static void newActivityScope(List<Object> held, int singletons) {
+        Activity activity = BenchmarkFuel.newActivity();
+        Parent parent = BenchmarkFuel.newIgnitedParent(activity);
+        for (int s = 0; s < singletons; s++) {
+            // each flavor is its own CacheKey so it's its own singleton within the Activity
+            Lazy.attain(parent, ActivityThing.class, s).get();
+        }
+        held.add(activity);
+        held.add(parent);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.benchmark.BenchmarkFuel.ActivityThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.AppThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.ArgThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.HeavyAttainParent;
+import com.ath.fuel.benchmark.BenchmarkFuel.HeavyParent;
+import com.ath.fuel.benchmark.BenchmarkFuel.Instance;
+import com.ath.fuel.benchmark.BenchmarkFuel.ObjectThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+import com.ath.fuel.benchmark.BenchmarkFuel.Provided;
+import com.ath.fuel.benchmark.BenchmarkFuel.Reflective;
+import com.ath.fuel.benchmark.BenchmarkFuel.ViewRootThing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Lazy hot path: attain + get per {@link com.ath.fuel.Scope}, deferred, memoized and batch attain, get on an already resolved Lazy,
+ * a heavy View's Lazies as initializers vs {@link com.ath.fuel.Attain} fields,
+ * ignite with pending children and the three kinds of binding.<br>
+ * Run with the gc profiler (on by default in build.gradle) to see allocation per op alongside throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LazyBenchmark {
+
+    private Parent appParent;
+    private Parent activityParent;
+    private View viewRootChild;
+    private Lazy<AppThing> resolved;
+
+    private Activity activity;
+
+    @State(Scope.Benchmark)
+    public static class Pending {
+        @Param({"1", "10", "50"})
+        public int children;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        appParent = BenchmarkFuel.newIgnitedParent(BenchmarkFuel.app());
+        activity = BenchmarkFuel.newActivity();
+        activityParent = BenchmarkFuel.newIgnitedParent(activity);
+        viewRootChild = BenchmarkFuel.newViewUnderViewRoot(activity);
+        resolved = Lazy.attain(appParent, AppThing.class);
+        resolved.get();
+    }
+
+    @Benchmark
+    public Object attainGetApplication() {
+        return Lazy.attain(appParent, AppThing.class).get();
+    }
+
+    @Benchmark
+    public Object attainGetActivity() {
+        return Lazy.attain(activityParent, ActivityThing.class).get();
+    }
+
+    @Benchmark
+    public Object attainGetViewRoot() {
+        return Lazy.attain(viewRootChild, ViewRootThing.class).get();
+    }
+
+    @Benchmark
+    public Object attainGetObject() {
+        return Lazy.attain(activityParent, ObjectThing.class).get();
+    }
+
+    @Benchmark
+    public Object attainDeferredGetActivity() {
+        return Lazy.attainDeferred(activityParent, ActivityThing.class).get();
+    }
+
+    /** Attain on every call, the adapter / onBind pattern */
+    @Benchmark
+    public Object attainMemoizedGetObject() {
+        return Lazy.attainMemoized(activityParent, ObjectThing.class).get();
+    }
+
+    /** Three singleton collaborators, one per scope, one attain + get each */
+    @Benchmark
+    public void attainGetEach(Blackhole bh) {
+        bh.consume(Lazy.attain(viewRootChild, AppThing.class).get());
+        bh.consume(Lazy.attain(viewRootChild, ActivityThing.class).get());
+        bh.consume(Lazy.attain(viewRootChild, ViewRootThing.class).get());
+    }
+
+    /** The same three in one {@link Lazy#attainAll(Object, Class[])} */
+    @Benchmark
+    public Object attainAll() {
+        return Lazy.attainAll(viewRootChild, AppThing.class, ActivityThing.class, ViewRootThing.class);
+    }
+
+    /** A Lazy declared but never read, what most fields of a freshly inflated View amount to */
+    @Benchmark
+    public Object attainUnused() {
+        return Lazy.attain(activityParent, ActivityThing.class);
+    }
+
+    @Benchmark
+    public Object attainDeferredUnused() {
+        return Lazy.attainDeferred(activityParent, ActivityThing.class);
+    }
+
+    @Benchmark
+    public Object getResolved() {
+        return resolved.get();
+    }
+
+    @Benchmark
+    public Object igniteWithPendingChildren(Pending pending) {
+        Parent parent = new Parent();
+        for (int i = 0; i < pending.children; i++) {
+            Lazy.attain(parent, AppThing.class);
+        }
+        FuelInjector.get().ignite(activity, parent);
+        return parent;
+    }
+
+    /** A View with 16 Lazy field initializers, each queued on its own and dequeued at ignite */
+    @Benchmark
+    public Object igniteHeavyInitializers() {
+        HeavyParent parent = new HeavyParent();
+        FuelInjector.get().ignite(activity, parent);
+        return parent;
+    }
+
+    /** The same 16 Lazies as {@link com.ath.fuel.Attain} fields, filled in one pass at ignite */
+    @Benchmark
+    public Object igniteHeavyAttain() {
+        HeavyAttainParent parent = new HeavyAttainParent();
+        FuelInjector.get().ignite(activity, parent);
+        return parent;
+    }
+
+    @Benchmark
+    public Object bindingReflective() {
+        return Lazy.attain(activityParent, Reflective.class).get();
+    }
+
+    /** Reflective construction through a constructor with arguments */
+    @Benchmark
+    public Object bindingReflectiveArgs() {
+        return Lazy.attain(activityParent, ArgThing.class).get();
+    }
+
+    @Benchmark
+    public Object bindingProvider() {
+        return Lazy.attain(activityParent, Provided.class).get();
+    }
+
+    @Benchmark
+    public Object bindingInstance() {
+        return Lazy.attain(activityParent, Instance.class).get();
+    }
+}
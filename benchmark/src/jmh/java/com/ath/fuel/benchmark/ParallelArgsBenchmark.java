@@ -0,0 +1,71 @@
+package com.ath.fuel.benchmark;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.FuelConfigurator;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reflective construction of a type taking four heavy, independent collaborators, one after another (threads = 0) and with
+ * {@link FuelModule#setParallelConstructorArgs(int)}.<br>
+ * Each collaborator parks for a millisecond in its constructor to stand in for the I/O a real one does, so the gain shows on a
+ * single CPU too. Nothing is a singleton, every op constructs all five.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ParallelArgsBenchmark {
+
+    private static final long WORK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public static class Heavy0 { public Heavy0() { LockSupport.parkNanos(WORK_NANOS); } }
+    public static class Heavy1 { public Heavy1() { LockSupport.parkNanos(WORK_NANOS); } }
+    public static class Heavy2 { public Heavy2() { LockSupport.parkNanos(WORK_NANOS); } }
+    public static class Heavy3 { public Heavy3() { LockSupport.parkNanos(WORK_NANOS); } }
+
+    public static class Composite {
+        public Composite(Heavy0 heavy0, Heavy1 heavy1, Heavy2 heavy2, Heavy3 heavy3) {
+        }
+    }
+
+    @Param({"0", "4"})
+    public int threads;
+
+    private Parent parent;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkFuel.app(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bindReflectively(Heavy0.class);
+                module.bindReflectively(Heavy1.class);
+                module.bindReflectively(Heavy2.class);
+                module.bindReflectively(Heavy3.class);
+                module.bindReflectively(Composite.class);
+            }
+        });
+        FuelInjector.get().getRootModule().setParallelConstructorArgs(threads);
+        parent = BenchmarkFuel.newIgnitedParent(BenchmarkFuel.app());
+    }
+
+    @Benchmark
+    public Object construct() {
+        return Lazy.attain(parent, Composite.class).get();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Activity;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.FuelConfigurator;
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.IdleScheduler;
+import com.ath.fuel.Lazy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The frame a screen first uses its 4 expensive collaborators in, constructed right there and prefetched with
+ * {@link Lazy#prefetch()} when the screen was declared.<br>
+ * The screen is declared and the idle scheduler drained before each invocation, outside of what's measured, the idle
+ * between the frame that declares the screen and the one that uses it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PrefetchBenchmark {
+
+    private static final long WORK = 20000; // Blackhole tokens per collaborator, tens of microseconds
+
+    public static class Collaborator0 { public Collaborator0() { Blackhole.consumeCPU(WORK); } }
+    public static class Collaborator1 { public Collaborator1() { Blackhole.consumeCPU(WORK); } }
+    public static class Collaborator2 { public Collaborator2() { Blackhole.consumeCPU(WORK); } }
+    public static class Collaborator3 { public Collaborator3() { Blackhole.consumeCPU(WORK); } }
+
+    public static class Screen {
+        Lazy<Collaborator0> collaborator0;
+        Lazy<Collaborator1> collaborator1;
+        Lazy<Collaborator2> collaborator2;
+        Lazy<Collaborator3> collaborator3;
+
+        Screen(Activity activity, boolean prefetch) {
+            FuelInjector.get().ignite(activity, this);
+            collaborator0 = Lazy.attain(this, Collaborator0.class);
+            collaborator1 = Lazy.attain(this, Collaborator1.class);
+            collaborator2 = Lazy.attain(this, Collaborator2.class);
+            collaborator3 = Lazy.attain(this, Collaborator3.class);
+            if (prefetch) {
+                collaborator0.prefetch();
+                collaborator1.prefetch();
+                collaborator2.prefetch();
+                collaborator3.prefetch();
+            }
+        }
+
+        void use(Blackhole bh) {
+            bh.consume(collaborator0.get());
+            bh.consume(collaborator1.get());
+            bh.consume(collaborator2.get());
+            bh.consume(collaborator3.get());
+        }
+    }
+
+    @Param({"false", "true"})
+    public boolean prefetch;
+
+    private final Queue<Runnable> idle = new ArrayDeque<>();
+    private Activity activity;
+    private Screen screen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkFuel.app(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bindReflectively(Collaborator0.class);
+                module.bindReflectively(Collaborator1.class);
+                module.bindReflectively(Collaborator2.class);
+                module.bindReflectively(Collaborator3.class);
+            }
+        });
+        FuelInjector.get().getRootModule().setIdleScheduler(new IdleScheduler() {
+            @Override public void scheduleIdle(@NonNull Runnable task) {
+                idle.add(task);
+            }
+
+            @Override public boolean isSchedulerThread() {
+                return true; // the idle tasks run on the benchmark thread
+            }
+        });
+        activity = BenchmarkFuel.newActivity();
+    }
+
+    @Setup(Level.Invocation)
+    public void declare() {
+        screen = new Screen(activity, prefetch);
+        Runnable task;
+        while ((task = idle.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Benchmark
+    public void frame(Blackhole bh) {
+        screen.use(bh);
+    }
+}
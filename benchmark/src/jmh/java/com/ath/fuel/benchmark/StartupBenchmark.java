@@ -0,0 +1,129 @@
+package com.ath.fuel.benchmark;
+
+import android.app.Application;
+
+import com.ath.fuel.BenchmarkAccess;
+import com.ath.fuel.benchmark.BenchmarkFuel.Module;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration cost as the binding count grows -- plot time against {@code keys} and look for where it stops being linear.<br>
+ * Each op is one full pass over a freshly built module, see {@link SyntheticBindings} for the mix of bindings.<br>
+ * <br>
+ * Construction is in {@link FirstConstructionBenchmark}, it needs the synthetic module installed as the root module.<br>
+ * gc.alloc.rate.norm includes the per-invocation setup (building the modules), compare it across {@code keys}, not across methods.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"100", "1000", "2500", "5000", "10000"})
+    public int keys;
+
+    private static final int FEATURES = 10;
+
+    private SyntheticBindings bindings;
+    private SyntheticBindings[] features;
+    private Class<?>[][] featureKeys;
+    private List<Class<?>> requestTypes;
+    private Module fresh;
+    private Module configured;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        bindings = new SyntheticBindings(keys);
+        requestTypes = bindings.requestTypes();
+        features = new SyntheticBindings[FEATURES];
+        featureKeys = new Class<?>[FEATURES][];
+        for (int i = 0; i < FEATURES; i++) {
+            features[i] = new SyntheticBindings(i * keys / FEATURES, keys / FEATURES);
+            featureKeys[i] = features[i].ownedKeys();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        fresh = new Module(new Application(), null);
+        configured = new Module(new Application(), bindings);
+        configured.configure();
+    }
+
+    /** FuelModule.configure with the synthetic bindings added as a submodule, what ignite pays */
+    @Benchmark
+    public Object configure() {
+        Module module = new Module(new Application(), bindings);
+        module.configure();
+        return module;
+    }
+
+    /** The same bindings as {@value #FEATURES} lazily configured feature submodules, none of them used yet */
+    @Benchmark
+    public Object configureLazily() {
+        Module module = new Module(new Application(), null);
+        module.configure();
+        for (int i = 0; i < FEATURES; i++) {
+            module.addSubmodule(features[i], featureKeys[i]);
+        }
+        return module;
+    }
+
+    /** {@link #configureLazily()} then one key of one feature resolved, which configures that feature alone */
+    @Benchmark
+    public Object configureLazilyResolveOne() {
+        Module module = new Module(new Application(), null);
+        module.configure();
+        for (int i = 0; i < FEATURES; i++) {
+            module.addSubmodule(features[i], featureKeys[i]);
+        }
+        return BenchmarkAccess.getType(module, requestTypes.get(0));
+    }
+
+    /** Just the addModule of the synthetic bindings into an otherwise empty module */
+    @Benchmark
+    public Object addModule() {
+        fresh.addSubmodule(bindings);
+        return fresh;
+    }
+
+    @Benchmark
+    public Object printBindings() {
+        configured.printBindings();
+        return configured;
+    }
+
+    /** Uncached walk of every binding chain -- getType */
+    @Benchmark
+    public void resolveGetType(Blackhole blackhole) {
+        for (Class<?> type : requestTypes) {
+            blackhole.consume(BenchmarkAccess.getType(configured, type));
+        }
+    }
+
+    /** What Lazy pre-processing calls -- toLeafType, the cache is static so only the first invocation per fork is cold */
+    @Benchmark
+    public void resolveToLeafType(Blackhole blackhole) {
+        for (Class<?> type : requestTypes) {
+            blackhole.consume(BenchmarkAccess.toLeafType(configured, type));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ath.fuel.benchmark;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.FuelConfigurator;
+import com.ath.fuel.FuelModule;
+import com.ath.fuel.Lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a module of {@code count} keys over {@link SyntheticTypes}, cycling through every kind of binding:<br>
+ * - chain: I -> J -> C, C bound reflectively (3 bindings)<br>
+ * - instance: I -> new C()<br>
+ * - provider: I -> provider of C<br>
+ * - reflective: C bound reflectively, requested as C<br>
+ * So {@code count} keys make 1.5 x {@code count} bindings.
+ */
+@SuppressWarnings("unchecked")
+public final class SyntheticBindings implements FuelModule.FuelSubmodule {
+
+    enum Kind {
+        Chain, Instance, Provider, Reflective
+    }
+
+    private static final class ClassProvider implements FuelModule.FuelProvider<Object> {
+        private final @NonNull Class<?> type;
+
+        ClassProvider(@NonNull Class<?> type) {
+            this.type = type;
+        }
+
+        @Override public Object provide(Lazy lazy, Object parent) {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final int from;
+    private final int count;
+
+    public SyntheticBindings(int count) {
+        this(0, count);
+    }
+
+    /** Indices from..from+count, a slice of the keys to stand in for one feature's submodule */
+    public SyntheticBindings(int from, int count) {
+        if (from + count > SyntheticTypes.COUNT) {
+            throw new IllegalArgumentException("Only " + SyntheticTypes.COUNT + " synthetic types were generated, asked for " + (from + count));
+        }
+        this.from = from;
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    static @NonNull Kind kindOf(int i) {
+        return Kind.values()[i % Kind.values().length];
+    }
+
+    static @NonNull Class<?> type(char prefix, int i) {
+        try {
+            return Class.forName(SyntheticTypes.class.getName() + (i / SyntheticTypes.CHUNK) + "$" + prefix + i);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The key a consumer would attain for index i */
+    public static @NonNull Class<?> requestType(int i) {
+        return type(kindOf(i) == Kind.Reflective ? 'C' : 'I', i);
+    }
+
+    /** Loads every requested type up front so class loading isn't billed to Fuel */
+    public @NonNull List<Class<?>> requestTypes() {
+        List<Class<?>> out = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            out.add(requestType(i));
+        }
+        return out;
+    }
+
+    /** Every key this module binds, what it registers when added lazily */
+    public @NonNull Class<?>[] ownedKeys() {
+        List<Class<?>> out = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            switch (kindOf(i)) {
+                case Chain:
+                    out.add(type('I', i));
+                    out.add(type('J', i));
+                    out.add(type('C', i));
+                    break;
+                case Instance:
+                case Provider:
+                    out.add(type('I', i));
+                    break;
+                case Reflective:
+                    out.add(type('C', i));
+                    break;
+            }
+        }
+        return out.toArray(new Class<?>[0]);
+    }
+
+    @Override public void configure(@NonNull FuelConfigurator module) {
+        try {
+            for (int i = from; i < from + count; i++) {
+                Class i0 = type('I', i);
+                Class c0 = type('C', i);
+                switch (kindOf(i)) {
+                    case Chain:
+                        Class j0 = type('J', i);
+                        module.bind(i0, j0);
+                        module.bind(j0, c0);
+                        module.bindReflectively(c0);
+                        break;
+                    case Instance:
+                        module.bind(i0, c0.getDeclaredConstructor().newInstance());
+                        break;
+                    case Provider:
+                        module.bind(i0, new ClassProvider(c0));
+                        break;
+                    case Reflective:
+                        module.bindReflectively(c0);
+                        break;
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ath.fuel.benchmark;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.FuelInjector;
+import com.ath.fuel.Lazy;
+import com.ath.fuel.ThreadPolicy;
+import com.ath.fuel.benchmark.BenchmarkFuel.AppThing;
+import com.ath.fuel.benchmark.BenchmarkFuel.Parent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a {@link ThreadPolicy} costs an attain made off the main thread -- Fuel is ignited on a throwaway thread so every
+ * benchmark thread is a background thread.<br>
+ * None is no policy at all, Every is Sampled at a rate of 1, a stack walk per attain, which is what Strict pays before it throws.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ThreadPolicyBenchmark {
+
+    @Param({"None", "Off", "Sampled", "Every"})
+    public String policy;
+
+    private Parent appParent;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        Thread main = new Thread(new Runnable() {
+            @Override public void run() {
+                BenchmarkFuel.app();
+            }
+        });
+        main.start();
+        main.join();
+
+        FuelInjector.get().getRootModule().setThreadPolicy(newPolicy(policy));
+        appParent = BenchmarkFuel.newIgnitedParent(BenchmarkFuel.app());
+    }
+
+    private static @Nullable ThreadPolicy newPolicy(@NonNull String policy) {
+        ThreadPolicy threadPolicy;
+        switch (policy) {
+            case "None":
+                return null;
+            case "Off":
+                threadPolicy = new ThreadPolicy(ThreadPolicy.Mode.Off, 1000, TimeUnit.MINUTES.toMillis(1));
+                break;
+            case "Sampled":
+                threadPolicy = new ThreadPolicy(ThreadPolicy.Mode.Sampled, 1000, TimeUnit.MINUTES.toMillis(1));
+                break;
+            default:
+                threadPolicy = new ThreadPolicy(ThreadPolicy.Mode.Sampled, 1, TimeUnit.MINUTES.toMillis(1));
+                break;
+        }
+        threadPolicy.setListener(new ThreadPolicy.OnThreadPolicyReportListener() {
+            @Override public void onThreadPolicyReport(@NonNull Map<String, Long> samplesByCallSite, int sampleRate) {
+                // reports are not what's measured
+            }
+        });
+        return threadPolicy;
+    }
+
+    @Benchmark
+    public Object attainGetOffMainThread() {
+        return Lazy.attain(appParent, AppThing.class).get();
+    }
+}
@@ -0,0 +1,34 @@
+package android.app;
+
+import android.content.ContextWrapper;
+
+public class Activity extends ContextWrapper {
+    private boolean changingConfigurations;
+    private boolean finishing;
+
+    public Activity() {
+        super(null);
+    }
+
+    public Application getApplication() {
+        return null;
+    }
+
+    public boolean isChangingConfigurations() {
+        return changingConfigurations;
+    }
+
+    public boolean isFinishing() {
+        return finishing;
+    }
+
+    /** Stub only: lets JVM harnesses simulate a configuration change */
+    public void setChangingConfigurations(boolean changingConfigurations) {
+        this.changingConfigurations = changingConfigurations;
+    }
+
+    /** Stub only: lets JVM harnesses simulate finish() */
+    public void setFinishing(boolean finishing) {
+        this.finishing = finishing;
+    }
+}
@@ -0,0 +1,50 @@
+package android.app;
+
+import android.content.ContextWrapper;
+import android.os.Bundle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Application extends ContextWrapper {
+    public interface ActivityLifecycleCallbacks {
+        void onActivityCreated(Activity activity, Bundle savedInstanceState);
+
+        void onActivityStarted(Activity activity);
+
+        void onActivityResumed(Activity activity);
+
+        void onActivityPaused(Activity activity);
+
+        void onActivityStopped(Activity activity);
+
+        void onActivitySaveInstanceState(Activity activity, Bundle outState);
+
+        void onActivityDestroyed(Activity activity);
+    }
+
+    private final List<ActivityLifecycleCallbacks> callbacks = new ArrayList<>();
+
+    public Application() {
+        super(null);
+    }
+
+    public void registerActivityLifecycleCallbacks(ActivityLifecycleCallbacks callback) {
+        synchronized (callbacks) {
+            callbacks.add(callback);
+        }
+    }
+
+    public void unregisterActivityLifecycleCallbacks(ActivityLifecycleCallbacks callback) {
+        synchronized (callbacks) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /** Stub only: lets JVM harnesses drive the lifecycle the framework would normally drive */
+    public List<ActivityLifecycleCallbacks> getActivityLifecycleCallbacks() {
+        synchronized (callbacks) {
+            return new ArrayList<>(callbacks);
+        }
+    }
+}
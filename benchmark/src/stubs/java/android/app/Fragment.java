@@ -0,0 +1,9 @@
+package android.app;
+
+import android.view.View;
+
+public class Fragment {
+    public View getView() {
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package android.app;
+
+import android.content.ContextWrapper;
+
+public abstract class Service extends ContextWrapper {
+    public Service() {
+        super(null);
+    }
+}
@@ -0,0 +1,21 @@
+package android.content;
+
+public abstract class Context {
+    public static final String LAYOUT_INFLATER_SERVICE = "layout_inflater";
+    public static final String CONNECTIVITY_SERVICE = "connectivity";
+    public static final String ALARM_SERVICE = "alarm";
+    public static final String LOCATION_SERVICE = "location";
+    public static final String NOTIFICATION_SERVICE = "notification";
+
+    public Object getSystemService(String name) {
+        return null;
+    }
+
+    public ComponentName startService(Intent service) {
+        return null;
+    }
+
+    public Context getApplicationContext() {
+        return this;
+    }
+}
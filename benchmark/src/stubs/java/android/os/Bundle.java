@@ -0,0 +1,17 @@
+package android.os;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class Bundle {
+    private final Map<String, Object> values = new HashMap<>();
+
+    public void putString(String key, String value) {
+        values.put(key, value);
+    }
+
+    public String getString(String key) {
+        Object value = values.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+}
@@ -0,0 +1,11 @@
+package android.os;
+
+/** Stub only: runs nothing, the JVM harnesses schedule with a plain executor instead */
+public class Handler {
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable runnable) {
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package android.os;
+
+public final class Looper {
+    private static final Looper main = new Looper(Thread.currentThread());
+    private final Thread thread;
+    private final MessageQueue queue = new MessageQueue();
+
+    private Looper(Thread thread) {
+        this.thread = thread;
+    }
+
+    public static Looper getMainLooper() {
+        return main;
+    }
+
+    public static Looper myLooper() {
+        return Thread.currentThread() == main.thread ? main : null;
+    }
+
+    public static MessageQueue myQueue() {
+        return main.queue;
+    }
+
+    public Thread getThread() {
+        return thread;
+    }
+}
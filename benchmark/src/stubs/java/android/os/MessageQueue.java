@@ -0,0 +1,11 @@
+package android.os;
+
+/** Stub only: idle handlers are never called, the JVM harnesses schedule with a plain executor instead */
+public final class MessageQueue {
+    public interface IdleHandler {
+        boolean queueIdle();
+    }
+
+    public void addIdleHandler(IdleHandler handler) {
+    }
+}
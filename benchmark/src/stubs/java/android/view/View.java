@@ -0,0 +1,64 @@
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class View {
+    public interface OnAttachStateChangeListener {
+        void onViewAttachedToWindow(View v);
+
+        void onViewDetachedFromWindow(View v);
+    }
+
+    private final Context context;
+    private final Map<Integer, Object> tags = new HashMap<>();
+    private final List<OnAttachStateChangeListener> attachListeners = new ArrayList<>();
+    private ViewParent parent;
+
+    public View(Context context) {
+        this.context = context;
+    }
+
+    public final Context getContext() {
+        return context;
+    }
+
+    public boolean isInEditMode() {
+        return false;
+    }
+
+    public Object getTag(int key) {
+        return tags.get(key);
+    }
+
+    public void setTag(int key, Object tag) {
+        tags.put(key, tag);
+    }
+
+    public final ViewParent getParent() {
+        return parent;
+    }
+
+    void setParent(ViewParent parent) {
+        this.parent = parent;
+    }
+
+    public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachListeners.add(listener);
+    }
+
+    public void removeOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachListeners.remove(listener);
+    }
+
+    /** Stub only: lets JVM harnesses simulate the view leaving the window */
+    public void dispatchDetachedFromWindow() {
+        for (OnAttachStateChangeListener listener : new ArrayList<>(attachListeners)) {
+            listener.onViewDetachedFromWindow(this);
+        }
+    }
+}
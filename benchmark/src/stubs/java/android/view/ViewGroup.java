@@ -0,0 +1,13 @@
+package android.view;
+
+import android.content.Context;
+
+public class ViewGroup extends View implements ViewParent {
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public void addView(View child) {
+        child.setParent(this);
+    }
+}
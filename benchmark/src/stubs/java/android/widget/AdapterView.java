@@ -0,0 +1,10 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+public abstract class AdapterView<T> extends ViewGroup {
+    public AdapterView(Context context) {
+        super(context);
+    }
+}
@@ -0,0 +1,15 @@
+package android.widget;
+
+import android.content.Context;
+
+public class ArrayAdapter<T> {
+    private final Context context;
+
+    public ArrayAdapter(Context context, int resource) {
+        this.context = context;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+}
@@ -0,0 +1,28 @@
+package androidx.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SparseArrayCompat<E> {
+    private final Map<Integer, E> map = new HashMap<>();
+
+    public E get(int key) {
+        return map.get(key);
+    }
+
+    public void put(int key, E value) {
+        map.put(key, value);
+    }
+
+    public void remove(int key) {
+        map.remove(key);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+}
@@ -0,0 +1,10 @@
+package androidx.core.util;
+
+public final class Preconditions {
+    public static <T> T checkNotNull(T reference) {
+        if (reference == null) {
+            throw new NullPointerException();
+        }
+        return reference;
+    }
+}
@@ -0,0 +1,16 @@
+package androidx.fragment.app;
+
+import android.content.Context;
+
+public class Fragment {
+    private Context context;
+
+    public Context getContext() {
+        return context;
+    }
+
+    /** Stub only: stands in for onAttach(Context) */
+    public void setContext(Context context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ath.fuel;
+
+/** JVM stand-in for the generated resource class */
+public final class R {
+    public static final class id {
+        public static final int fuel_view_root = 0x7f010001;
+        public static final int fuel_view_root_watcher = 0x7f010002;
+    }
+}
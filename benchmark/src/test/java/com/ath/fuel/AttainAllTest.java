@@ -0,0 +1,45 @@
+package com.ath.fuel;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AttainAllTest {
+
+    public static class First {
+    }
+
+    public static class Second {
+    }
+
+    private static TestFuel.Parent earlyParent;
+    private static List<Lazy<?>> early;
+
+    @BeforeClass
+    public static void attainBeforeIgnite() {
+        earlyParent = new TestFuel.Parent();
+        early = Lazy.attainAll(earlyParent, First.class, Second.class); // before the root module exists
+        TestFuel.app();
+    }
+
+    @Test
+    public void attainedBeforeIgniteResolveAtIgnite() {
+        FuelInjector.get().ignite(TestFuel.app(), earlyParent);
+        assertEquals(2, early.size());
+        assertTrue(early.get(0).get() instanceof First);
+        assertTrue(early.get(1).get() instanceof Second);
+    }
+
+    @Test
+    public void attainedOnAnIgnitedParentResolveInOrder() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        List<Lazy<?>> lazies = Lazy.attainAll(parent, Second.class, First.class);
+        assertEquals(2, lazies.size());
+        assertTrue(lazies.get(0).get() instanceof Second);
+        assertTrue(lazies.get(1).get() instanceof First);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ath.fuel;
+
+import com.ath.fuel.err.FuelInjectionException;
+import com.ath.fuel.err.FuelScopeViolationException;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class AttainDeferredTest {
+
+    public static class Thing {
+    }
+
+    @AppSingleton
+    public static class AppThing {
+    }
+
+    @ActivitySingleton
+    public static class ActivityThing {
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app();
+    }
+
+    @After
+    public void release() {
+        FuelInjector.get().setDebug(false);
+    }
+
+    @Test
+    public void preProcessedOnTheFirstGet() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        Lazy<Thing> lazy = Lazy.attainDeferred(parent, Thing.class);
+        assertFalse(Lazy.isPreProcessed(lazy));
+
+        assertNotNull(lazy.get());
+        assertTrue(Lazy.isPreProcessed(lazy));
+    }
+
+    @Test
+    public void notQueuedOnAParentThatIsNotIgnited() {
+        TestFuel.Parent parent = new TestFuel.Parent();
+        Lazy<Thing> lazy = Lazy.attainDeferred(parent, Thing.class);
+
+        FuelInjector.get().ignite(TestFuel.app(), parent); // a queued lazy would be pre-processed here
+        assertFalse(Lazy.isPreProcessed(lazy));
+        assertNotNull(lazy.get());
+    }
+
+    @Test(expected = FuelInjectionException.class)
+    public void getOnAParentNeverIgnitedFails() {
+        Lazy.attainDeferred(new TestFuel.Parent(), Thing.class).get();
+    }
+
+    @Test(expected = FuelScopeViolationException.class)
+    public void aScopeViolationFailsOnTheFirstGet() {
+        AppThing appThing = Lazy.attain(TestFuel.app(), AppThing.class).get();
+        Lazy<ActivityThing> lazy = Lazy.attainDeferred(appThing, ActivityThing.class); // nothing checked yet
+        lazy.get();
+    }
+
+    @Test
+    public void debugPreProcessesAtAttainOnAnIgnitedParent() {
+        FuelInjector.get().setDebug(true);
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        assertTrue(Lazy.isPreProcessed(Lazy.attainDeferred(parent, Thing.class)));
+    }
+
+    @Test(expected = FuelScopeViolationException.class)
+    public void debugFailsAScopeViolationAtAttain() {
+        AppThing appThing = Lazy.attain(TestFuel.app(), AppThing.class).get();
+        FuelInjector.get().setDebug(true);
+        Lazy.attainDeferred(appThing, ActivityThing.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ath.fuel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class AttainFieldsTest {
+
+    public static class A {
+    }
+
+    public static class B {
+    }
+
+    public static class C {
+    }
+
+    public static class D {
+    }
+
+    public static class Base {
+        @Attain Lazy<A> a;
+        @Attain Lazy<B> b;
+    }
+
+    public static class Sub extends Base {
+        @Attain Lazy<C> c;
+        @Attain Lazy<D> d;
+    }
+
+    public static class Preset {
+        @Attain Lazy<A> a;
+        @Attain Lazy<B> b;
+
+        Preset() {
+            a = Lazy.attain(this, A.class);
+        }
+    }
+
+    @Test
+    public void fieldsAlreadySetAreLeftAlone() {
+        Preset preset = new Preset();
+        Lazy<A> before = preset.a;
+        FuelInjector.get().ignite(TestFuel.app(), preset);
+        assertSame(before, preset.a);
+        assertNotNull(preset.b);
+        assertNotNull(preset.b.get());
+    }
+
+    @Test
+    public void injectThenIgniteFillsEachFieldOnce() {
+        Sub sub = new Sub();
+        TestFuel.app();
+        FuelInjector.get().inject(sub);
+        List<Lazy<?>> injected = Arrays.<Lazy<?>>asList(sub.a, sub.b, sub.c, sub.d);
+        FuelInjector.get().ignite(TestFuel.app(), sub);
+        assertEquals(injected, Arrays.<Lazy<?>>asList(sub.a, sub.b, sub.c, sub.d));
+        assertNotNull(sub.d.get());
+    }
+
+    @Test
+    public void superclassFieldsComeFirstEachInDeclarationOrder() {
+        TestFuel.app();
+        List<Class<?>> types = new ArrayList<>();
+        for (Lazy lazy : InjectionPlan.of(Sub.class).attain(new Sub(), false).getLazies()) {
+            types.add(lazy.getType());
+        }
+        assertEquals(Arrays.<Class<?>>asList(A.class, B.class, C.class, D.class), types);
+    }
+}
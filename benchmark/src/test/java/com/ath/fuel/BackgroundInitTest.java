@@ -0,0 +1,103 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.err.FuelBackgroundInitException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class BackgroundInitTest {
+
+    private static final long TIMEOUT_MILLIS = 200;
+
+    @BackgroundInit
+    @AppSingleton
+    public static class Slow {
+        final Thread constructedOn = Thread.currentThread();
+
+        public Slow() throws InterruptedException {
+            Thread.sleep(50);
+        }
+    }
+
+    @BackgroundInit
+    @AppSingleton
+    public static class Stuck {
+        static final CountDownLatch release = new CountDownLatch(1);
+        final Thread constructedOn = Thread.currentThread();
+
+        public Stuck() throws InterruptedException {
+            release.await();
+        }
+    }
+
+    @BackgroundInit
+    @AppSingleton
+    public static class Inline {
+        final Thread constructedOn = Thread.currentThread();
+    }
+
+    private static final List<Class<?>> blocked = new ArrayList<>(); // reported on the main thread
+    private static BackgroundInitializer initializer;
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app();
+        initializer = new BackgroundInitializer(2, TIMEOUT_MILLIS);
+        initializer.setListener(new BackgroundInitializer.OnBackgroundInitBlockedListener() {
+            @Override public void onBackgroundInitBlocked(@NonNull Class<?> leafType, long blockedMillis) {
+                blocked.add(leafType);
+            }
+        });
+        TestFuel.module().setBackgroundInitializer(initializer); // nothing bound to start at ignite
+    }
+
+    @Test
+    public void aMainThreadGetJoinsTheBackgroundConstruction() {
+        long blockedBefore = initializer.getBlockedCount();
+        Slow slow = Lazy.attain(TestFuel.app(), Slow.class).get();
+
+        assertNotSame(Thread.currentThread(), slow.constructedOn);
+        assertEquals(blockedBefore + 1, initializer.getBlockedCount());
+        assertSame(Slow.class, blocked.get(blocked.size() - 1));
+        assertSame(slow, Lazy.attain(TestFuel.app(), Slow.class).get()); // cached, no waiting
+        assertEquals(blockedBefore + 1, initializer.getBlockedCount());
+    }
+
+    @Test
+    public void aMainThreadGetGivesUpAfterTheTimeoutAndTheConstructionCarriesOn() throws InterruptedException {
+        try {
+            Lazy.attain(TestFuel.app(), Stuck.class).get();
+            fail("waited past the timeout");
+        } catch (FuelBackgroundInitException expected) {
+        }
+
+        Stuck.release.countDown();
+        Stuck stuck = Lazy.attain(TestFuel.app(), Stuck.class).get(); // joins the same construction
+        assertNotSame(Thread.currentThread(), stuck.constructedOn);
+    }
+
+    @Test
+    public void aBackgroundGetConstructsInline() throws InterruptedException {
+        final AtomicReference<Inline> inline = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+                inline.set(Lazy.attain(TestFuel.app(), Inline.class).get());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertSame(thread, inline.get().constructedOn);
+    }
+}
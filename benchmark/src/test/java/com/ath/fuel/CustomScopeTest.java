@@ -0,0 +1,103 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CustomScopeTest {
+
+    public static final class Session {
+    }
+
+    public static final class Checkout {
+    }
+
+    public static final class Other {
+    }
+
+    @ScopedSingleton(Session.class)
+    public static class SessionThing {
+    }
+
+    @ScopedSingleton(Checkout.class)
+    public static class CheckoutThing {
+    }
+
+    @ScopedSingleton(Other.class)
+    public static class OtherThing {
+    }
+
+    private static CustomScope session;
+    private static CustomScope checkout;
+    private static CustomScope other;
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                session = module.declareScope(Session.class);
+                checkout = module.declareScope(Checkout.class, session);
+                other = module.declareScope(Other.class);
+            }
+        });
+    }
+
+    @After
+    public void endScopes() {
+        ScopeHandle run = FuelInjector.get().getActiveScope(session);
+        if (run != null) {
+            run.end();
+        }
+        run = FuelInjector.get().getActiveScope(other);
+        if (run != null) {
+            run.end();
+        }
+    }
+
+    @Test
+    public void endCascadesToNestedScopes() {
+        ScopeHandle sessionRun = FuelInjector.get().beginScope(session);
+        ScopeHandle checkoutRun = FuelInjector.get().beginScope(checkout);
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.newActivity()); // App scope may not inject a custom one
+        CheckoutThing first = Lazy.attain(parent, CheckoutThing.class).get();
+        assertSame(first, Lazy.attain(parent, CheckoutThing.class).get());
+
+        sessionRun.end();
+        assertFalse(sessionRun.isActive());
+        assertFalse(checkoutRun.isActive());
+        assertNull(FuelInjector.get().getActiveScope(checkout));
+        assertTrue(FuelInjector.get().getRootModule().getCachedKeys(Scope.Custom, checkoutRun).isEmpty());
+
+        sessionRun = FuelInjector.get().beginScope(session);
+        checkoutRun = FuelInjector.get().beginScope(checkout);
+        assertNotSame(first, Lazy.attain(parent, CheckoutThing.class).get());
+        checkoutRun.end();
+        assertTrue(sessionRun.isActive());
+    }
+
+    @Test
+    public void attainAllFindsEachCustomScopeInItsOwnRun() {
+        FuelInjector.get().beginScope(session);
+        FuelInjector.get().beginScope(other);
+        Activity activity = TestFuel.newActivity();
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(activity);
+        SessionThing sessionThing = Lazy.attain(parent, SessionThing.class).get();
+        OtherThing otherThing = Lazy.attain(parent, OtherThing.class).get();
+
+        List<Lazy<?>> lazies = Lazy.attainAll(TestFuel.newIgnitedParent(activity), SessionThing.class, OtherThing.class);
+        assertSame(sessionThing, lazies.get(0).get());
+        assertSame(otherThing, lazies.get(1).get());
+    }
+}
@@ -0,0 +1,94 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredOnFueledTest {
+
+    private static final List<String> fueled = Collections.synchronizedList(new ArrayList<String>());
+    private static final TestFuel.IdleQueue idle = new TestFuel.IdleQueue();
+
+    @DeferOnFueled
+    public static class Deferred implements OnFueled {
+        @Override public void onFueled() {
+            fueled.add("deferred");
+        }
+    }
+
+    public static class Plain implements OnFueled {
+        @Override public void onFueled() {
+            fueled.add("plain");
+        }
+    }
+
+    public static class NeedsDeferred implements OnFueled {
+        public NeedsDeferred(Deferred deferred) {
+        }
+
+        @Override public void onFueled() {
+            fueled.add("needsDeferred");
+        }
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bindReflectively(Deferred.class);
+            }
+        });
+        TestFuel.module().setIdleScheduler(idle);
+    }
+
+    @After
+    public void idle() {
+        idle.runAll();
+        fueled.clear();
+    }
+
+    @Test
+    public void anUnrelatedOnFueledLeavesTheQueueAlone() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        Lazy.attain(parent, Deferred.class).get();
+        Lazy.attain(parent, Plain.class).get();
+        assertEquals(Collections.singletonList("plain"), fueled);
+
+        idle.runAll();
+        assertEquals(Arrays.asList("plain", "deferred"), fueled);
+    }
+
+    @Test
+    public void aDeferredArgumentRunsFirstOnTheSchedulerThread() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        Lazy.attain(parent, Deferred.class).get();
+        Lazy.attain(parent, NeedsDeferred.class).get();
+        assertEquals(Arrays.asList("deferred", "needsDeferred"), fueled);
+    }
+
+    @Test
+    public void offTheSchedulerThreadItIsQueuedBehindItsArgument() throws InterruptedException {
+        final TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        Thread background = new Thread(new Runnable() {
+            @Override public void run() {
+                Lazy.attain(parent, NeedsDeferred.class).get();
+            }
+        });
+        background.start();
+        background.join();
+        assertTrue(fueled.isEmpty());
+
+        idle.runAll();
+        assertEquals(Arrays.asList("deferred", "needsDeferred"), fueled);
+    }
+}
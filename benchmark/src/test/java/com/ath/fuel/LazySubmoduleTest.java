@@ -0,0 +1,74 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.err.FuelInjectionBindException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+
+public class LazySubmoduleTest {
+
+    public static class Eager {
+    }
+
+    public static class Claimed {
+    }
+
+    public static class Feature {
+    }
+
+    private static final Eager eager = new Eager();
+    private static final Feature feature = new Feature();
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bind(Eager.class, eager);
+            }
+        });
+        FuelInjector.get().setDebug(true); // after ignite, the stub Application has no system services to bind
+        TestFuel.module().addModule(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bind(Claimed.class, new Claimed());
+            }
+        }, Claimed.class);
+    }
+
+    @Test(expected = FuelInjectionBindException.class)
+    public void claimingAnEagerlyBoundKeyFails() {
+        TestFuel.module().addModule(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bind(Eager.class, new Eager());
+            }
+        }, Eager.class);
+    }
+
+    @Test(expected = FuelInjectionBindException.class)
+    public void claimingAnotherLazySubmodulesKeyFails() {
+        TestFuel.module().addModule(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bind(Claimed.class, new Claimed());
+            }
+        }, Claimed.class);
+    }
+
+    @Test(expected = FuelInjectionBindException.class)
+    public void bindingAClaimedKeyEagerlyFails() {
+        TestFuel.module().bind(Claimed.class, new Claimed());
+    }
+
+    @Test
+    public void configuredOnFirstResolution() {
+        TestFuel.module().addModule(new FuelModule.FuelSubmodule() {
+            @Override public void configure(@NonNull FuelConfigurator module) {
+                module.bind(Feature.class, feature);
+            }
+        }, Feature.class);
+        assertSame(feature, Lazy.attain(TestFuel.newIgnitedParent(TestFuel.app()), Feature.class).get());
+        assertSame(eager, Lazy.attain(TestFuel.newIgnitedParent(TestFuel.app()), Eager.class).get());
+    }
+}
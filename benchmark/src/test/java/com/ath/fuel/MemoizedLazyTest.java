@@ -0,0 +1,80 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MemoizedLazyTest {
+
+    public static class Thing {
+        Object owner;
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app();
+    }
+
+    @After
+    public void weakly() {
+        TestFuel.module().setMemoizeLaziesStrongly(false);
+    }
+
+    @Test
+    public void sameLazyWhileReferenced() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.app());
+        Lazy<Thing> lazy = Lazy.attainMemoized(parent, Thing.class);
+        System.gc();
+        assertSame(lazy, Lazy.attainMemoized(parent, Thing.class));
+    }
+
+    @Test
+    public void aParentItsInstanceReferencesIsCollected() throws InterruptedException {
+        WeakReference<TestFuel.Parent> parentRef = memoizeOwnedThingAndDestroy();
+        for (int i = 0; i < 50 && parentRef.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            TestFuel.newIgnitedParent(TestFuel.app()); // Fuel's WeakHashMaps let go of the destroyed Activity as they're used
+        }
+        assertNull(parentRef.get());
+    }
+
+    private static WeakReference<TestFuel.Parent> memoizeOwnedThingAndDestroy() {
+        Activity activity = TestFuel.newActivity();
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(activity);
+        Lazy.attainMemoized(parent, Thing.class).get().owner = parent; // ex: a listener back to its parent
+        TestFuel.destroy(activity);
+        return new WeakReference<>(parent);
+    }
+
+    @Test
+    public void stronglySameLazyAcrossCollections() {
+        TestFuel.module().setMemoizeLaziesStrongly(true);
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.newActivity());
+        int first = System.identityHashCode(Lazy.attainMemoized(parent, Thing.class)); // nothing but the memo holds it
+        System.gc();
+        assertEquals(first, System.identityHashCode(Lazy.attainMemoized(parent, Thing.class)));
+    }
+
+    @Test
+    public void stronglyDroppedWhenTheActivityIsDestroyed() {
+        TestFuel.module().setMemoizeLaziesStrongly(true);
+        Activity activity = TestFuel.newActivity();
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(activity);
+        Lazy<Thing> lazy = Lazy.attainMemoized(parent, Thing.class);
+        Thing thing = lazy.get();
+        assertSame(lazy, Lazy.attainMemoized(parent, Thing.class));
+
+        TestFuel.destroy(activity);
+        assertNotSame(thing, Lazy.attainMemoized(parent, Thing.class).get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ath.fuel;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelConstructorArgsTest {
+
+    private static final AtomicInteger sharedConstructions = new AtomicInteger();
+    private static final Set<Thread> argThreads = Collections.synchronizedSet(new HashSet<Thread>());
+
+    @AppSingleton
+    public static class Shared {
+        public Shared() throws InterruptedException {
+            sharedConstructions.incrementAndGet();
+            Thread.sleep(50); // the other arguments ask for it meanwhile
+        }
+    }
+
+    public static class Arg {
+        final Shared shared;
+
+        Arg(Shared shared) throws InterruptedException {
+            this.shared = shared;
+            argThreads.add(Thread.currentThread());
+            Thread.sleep(50);
+        }
+    }
+
+    @AppSingleton
+    public static class A extends Arg {
+        public A(Shared shared) throws InterruptedException {
+            super(shared);
+        }
+    }
+
+    @AppSingleton
+    public static class B extends Arg {
+        public B(Shared shared) throws InterruptedException {
+            super(shared);
+        }
+    }
+
+    @AppSingleton
+    public static class C extends Arg {
+        public C(Shared shared) throws InterruptedException {
+            super(shared);
+        }
+    }
+
+    @AppSingleton
+    public static class Top {
+        final A a;
+        final B b;
+        final C c;
+
+        public Top(A a, B b, C c) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.module().setParallelConstructorArgs(3);
+    }
+
+    @Test
+    public void aSharedDependencyIsBuiltOnce() {
+        Top top = Lazy.attain(TestFuel.app(), Top.class).get();
+
+        assertEquals(1, sharedConstructions.get());
+        assertSame(top.a.shared, top.b.shared);
+        assertSame(top.a.shared, top.c.shared);
+        assertSame(top.a.shared, Lazy.attain(TestFuel.app(), Shared.class).get());
+        assertTrue("arguments built on " + argThreads, argThreads.size() > 1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrefetchTest {
+
+    private static final List<Class<?>> constructed = new ArrayList<>(); // on the test thread only, it runs the idle slots
+    private static final TestFuel.IdleQueue idle = new TestFuel.IdleQueue();
+
+    @ActivitySingleton
+    public static class Screen {
+        public Screen() {
+            constructed.add(Screen.class);
+        }
+    }
+
+    public static class Low {
+        public Low() {
+            constructed.add(Low.class);
+        }
+    }
+
+    public static class High {
+        public High() {
+            constructed.add(High.class);
+        }
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.module().setIdleScheduler(idle);
+    }
+
+    @After
+    public void idle() {
+        idle.runAll();
+        constructed.clear();
+    }
+
+    @Test
+    public void readyOnlyAfterTheIdleSlot() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.newActivity());
+        Lazy<Screen> lazy = Lazy.attain(parent, Screen.class).prefetch();
+        assertFalse(lazy.isReady());
+        assertTrue(constructed.isEmpty()); // isReady never constructs
+
+        idle.runAll();
+        assertTrue(lazy.isReady());
+        lazy.get();
+        assertEquals(Arrays.<Class<?>>asList(Screen.class), constructed);
+    }
+
+    @Test
+    public void aCachedSingletonIsReadyWithoutAGet() {
+        Activity activity = TestFuel.newActivity();
+        Lazy.attain(activity, Screen.class).get();
+        assertTrue(Lazy.attain(TestFuel.newIgnitedParent(activity), Screen.class).isReady());
+        assertEquals(1, constructed.size());
+    }
+
+    @Test
+    public void higherPriorityFirst() {
+        TestFuel.Parent parent = TestFuel.newIgnitedParent(TestFuel.newActivity());
+        Lazy.attain(parent, Low.class).prefetch(1);
+        Lazy.attain(parent, High.class).prefetch(5);
+
+        idle.runAll();
+        assertEquals(Arrays.<Class<?>>asList(High.class, Low.class), constructed);
+    }
+
+    @Test
+    public void cancelledWhenTheActivityIsDestroyed() {
+        Activity activity = TestFuel.newActivity();
+        Lazy<Screen> lazy = Lazy.attain(TestFuel.newIgnitedParent(activity), Screen.class).prefetch();
+        Lazy<Low> low = Lazy.attain(TestFuel.newIgnitedParent(activity), Low.class).prefetch();
+
+        TestFuel.destroy(activity);
+        idle.runAll();
+        assertFalse(lazy.isReady());
+        assertFalse(low.isReady());
+        assertTrue(constructed.isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ath.fuel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResolutionSnapshotTest {
+
+    public static class Constructed {
+        public Constructed(List<?> list) {
+        }
+    }
+
+    private static final List<String> BINDINGS = Arrays.asList("class java.util.List java.util.ArrayList", "lazy java.util.Map x");
+    private static final long NEVER = Long.MAX_VALUE; // the tests write themselves
+
+    private File file;
+
+    @Before
+    public void newFile() throws IOException {
+        file = File.createTempFile("fuel_resolution_snapshot", null);
+        file.deleteOnExit();
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "1", NEVER);
+        snapshot.start(BINDINGS);
+        snapshot.recordLeafType(List.class, ArrayList.class);
+        snapshot.recordConstructor(Constructed.class, new Class<?>[]{List.class});
+        snapshot.write();
+    }
+
+    @Test
+    public void loadedForTheSameBindingsInAnyOrder() {
+        List<String> reordered = new ArrayList<>(BINDINGS);
+        Collections.reverse(reordered);
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "1", NEVER);
+        snapshot.start(reordered);
+        assertTrue(snapshot.isLoaded());
+        assertSame(ArrayList.class, snapshot.getLeafType(List.class));
+        Class<?>[] parameterTypes = snapshot.getConstructorParameterTypes(Constructed.class);
+        assertEquals(1, parameterTypes.length);
+        assertSame(List.class, parameterTypes[0]);
+    }
+
+    @Test
+    public void discardedForOtherBindings() {
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "1", NEVER);
+        snapshot.start(Collections.singletonList("class java.util.List java.util.LinkedList"));
+        assertFalse(snapshot.isLoaded());
+        assertNull(snapshot.getLeafType(List.class));
+        assertNull(snapshot.getConstructorParameterTypes(Constructed.class));
+    }
+
+    @Test
+    public void discardedForAnotherVersion() {
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "2", NEVER);
+        snapshot.start(BINDINGS);
+        assertFalse(snapshot.isLoaded());
+    }
+
+    @Test
+    public void aLeafTypeThatNoLongerFitsIsIgnored() {
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "1", NEVER);
+        snapshot.start(BINDINGS);
+        assertNull(snapshot.getLeafType(AbstractList.class)); // not in the snapshot
+        assertSame(ArrayList.class, snapshot.getLeafType(List.class));
+    }
+
+    @Test
+    public void retiredWhenTheBindingsChangeAfterStart() {
+        ResolutionSnapshot snapshot = new ResolutionSnapshot(file, "1", NEVER);
+        snapshot.start(BINDINGS);
+        snapshot.onBindingsChanged();
+        assertNull(snapshot.getLeafType(List.class));
+        snapshot.write(); // nothing, what's on disk still holds for the bindings at start
+
+        ResolutionSnapshot next = new ResolutionSnapshot(file, "1", NEVER);
+        next.start(BINDINGS);
+        assertSame(ArrayList.class, next.getLeafType(List.class));
+    }
+}
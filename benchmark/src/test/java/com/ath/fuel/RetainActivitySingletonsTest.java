@@ -0,0 +1,62 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RetainActivitySingletonsTest {
+
+    @ActivitySingleton
+    public static class Screen {
+    }
+
+    @BeforeClass
+    public static void configure() {
+        TestFuel.app();
+    }
+
+    @After
+    public void release() {
+        TestFuel.module().setRetainActivitySingletons(false);
+    }
+
+    @Test
+    public void sameInstanceAcrossARecreate() {
+        TestFuel.module().setRetainActivitySingletons(true);
+        Activity activity = TestFuel.newActivity();
+        Screen screen = Lazy.attain(activity, Screen.class).get();
+
+        Activity recreated = TestFuel.recreate(activity);
+        assertSame(screen, Lazy.attain(recreated, Screen.class).get());
+    }
+
+    @Test
+    public void droppedOnARealFinish() {
+        TestFuel.module().setRetainActivitySingletons(true);
+        Activity activity = TestFuel.newActivity();
+        Screen screen = Lazy.attain(activity, Screen.class).get();
+
+        Bundle state = new Bundle(); // saved on its way to the background, then finished
+        for (Application.ActivityLifecycleCallbacks callbacks : TestFuel.app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivitySaveInstanceState(activity, state);
+        }
+        TestFuel.destroy(activity);
+        assertNotSame(screen, Lazy.attain(TestFuel.newActivity(state), Screen.class).get());
+    }
+
+    @Test
+    public void rebuiltOnARecreateWhenNotRetaining() {
+        Activity activity = TestFuel.newActivity();
+        Screen screen = Lazy.attain(activity, Screen.class).get();
+
+        Activity recreated = TestFuel.recreate(activity);
+        assertNotSame(screen, Lazy.attain(recreated, Screen.class).get());
+    }
+}
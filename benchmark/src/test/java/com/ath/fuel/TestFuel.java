@@ -0,0 +1,159 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared fixture for the tests.<br>
+ * {@link FuelInjector} is a process wide singleton that can only be ignited once, the test task forks a JVM per test class
+ * so each class configures its own module with {@link #app(FuelModule.FuelSubmodule)}.
+ */
+final class TestFuel {
+
+    /** A parent object that is ignited but not itself a singleton -- the typical Lazy holder */
+    static class Parent {
+    }
+
+    /** Runs what's scheduled when the test says the main thread is idle */
+    static final class IdleQueue implements IdleScheduler {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private final Thread thread = Thread.currentThread(); // the test's, where it runs the idle slots
+
+        @Override public void scheduleIdle(@NonNull Runnable task) {
+            tasks.add(task);
+        }
+
+        @Override public boolean isSchedulerThread() {
+            return Thread.currentThread() == thread;
+        }
+
+        int size() {
+            return tasks.size();
+        }
+
+        /** Run one idle slot, what it schedules waits for the next */
+        boolean runOne() {
+            Runnable task = tasks.poll();
+            if (task != null) {
+                task.run();
+            }
+            return task != null;
+        }
+
+        /** @return how many idle slots it took */
+        int runAll() {
+            int slots = 0;
+            while (runOne()) {
+                slots++;
+            }
+            return slots;
+        }
+    }
+
+    private static final class Module extends FuelModule {
+        private final @Nullable FuelSubmodule extra;
+
+        Module(@NonNull Application app, @Nullable FuelSubmodule extra) {
+            super(app);
+            this.extra = extra;
+        }
+
+        @Override protected void configure(@NonNull Application app) {
+            super.configure(app);
+            if (extra != null) {
+                addModule(extra);
+            }
+        }
+
+        @Override protected void logW(String message) {
+            warnings.add(message);
+        }
+
+        /** Unbound types are constructed quietly, the tests don't bind what they don't care about */
+        @SuppressWarnings("unchecked")
+        @Override protected @Nullable <T> T onInstanceUnattainable(@NonNull Lazy<T> lazy) {
+            return (T) REFLECTIVE_PROVIDER.provide(lazy, null);
+        }
+    }
+
+    /** What Fuel logged as warnings, in order */
+    static final List<String> warnings = new CopyOnWriteArrayList<>();
+
+    private static Application app;
+
+    private TestFuel() {
+    }
+
+    static @NonNull Application app() {
+        return app(null);
+    }
+
+    /**
+     * @param extra bindings to add to the root module, only honored by the first call in the JVM
+     */
+    static synchronized @NonNull Application app(@Nullable FuelModule.FuelSubmodule extra) {
+        if (app == null) {
+            app = new Application();
+            FuelInjector.get().ignite(app, new Module(app, extra));
+        }
+        return app;
+    }
+
+    static @NonNull FuelModule module() {
+        app();
+        return FuelInjector.get().getRootModule();
+    }
+
+    /** Created and ignited the way the framework and a host Activity would */
+    static @NonNull Activity newActivity() {
+        return newActivity(null);
+    }
+
+    static @NonNull Activity newActivity(@Nullable Bundle savedInstanceState) {
+        Activity activity = new Activity();
+        for (Application.ActivityLifecycleCallbacks callbacks : app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivityCreated(activity, savedInstanceState);
+        }
+        FuelInjector.get().ignite(activity);
+        return activity;
+    }
+
+    /** Destroyed for a configuration change and replaced, the way the framework does on rotation */
+    static @NonNull Activity recreate(@NonNull Activity activity) {
+        activity.setChangingConfigurations(true);
+        Bundle state = new Bundle();
+        for (Application.ActivityLifecycleCallbacks callbacks : app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivitySaveInstanceState(activity, state);
+        }
+        for (Application.ActivityLifecycleCallbacks callbacks : app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivityDestroyed(activity);
+        }
+        Activity replacement = newActivity(state);
+        for (Application.ActivityLifecycleCallbacks callbacks : app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivityResumed(replacement);
+        }
+        return replacement;
+    }
+
+    static void destroy(@NonNull Activity activity) {
+        activity.setFinishing(true);
+        for (Application.ActivityLifecycleCallbacks callbacks : app().getActivityLifecycleCallbacks()) {
+            callbacks.onActivityDestroyed(activity);
+        }
+    }
+
+    static @NonNull Parent newIgnitedParent(@NonNull android.content.Context context) {
+        Parent parent = new Parent();
+        FuelInjector.get().ignite(context, parent);
+        return parent;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.err.FuelThreadPolicyException;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadPolicyTest {
+
+    public static class Thing {
+    }
+
+    private static final long NEVER = Long.MAX_VALUE; // reported when the policy is replaced
+
+    private static TestFuel.Parent parent;
+
+    @BeforeClass
+    public static void configure() {
+        parent = TestFuel.newIgnitedParent(TestFuel.app()); // the main thread is the one that ignites the app
+    }
+
+    @After
+    public void release() {
+        TestFuel.module().setThreadPolicy(null);
+        TestFuel.warnings.clear();
+    }
+
+    @Test
+    public void strictFailsOffTheMainThread() throws InterruptedException {
+        TestFuel.module().setThreadPolicy(new ThreadPolicy(ThreadPolicy.Mode.Strict, 1, NEVER));
+        assertTrue(attainOffTheMainThread(1, false).get() instanceof FuelThreadPolicyException);
+    }
+
+    @Test
+    public void strictLetsTheMainThreadAndTheAllowListThrough() throws InterruptedException {
+        ThreadPolicy policy = new ThreadPolicy(ThreadPolicy.Mode.Strict, 1, NEVER);
+        TestFuel.module().setThreadPolicy(policy);
+        Lazy.attain(parent, Thing.class);
+        assertNull(attainOffTheMainThread(1, true).get());
+        assertEquals(0, policy.getOffMainThreadAttainCount());
+    }
+
+    @Test
+    public void sampledReportsOneInNByCallSite() throws InterruptedException {
+        ThreadPolicy policy = new ThreadPolicy(ThreadPolicy.Mode.Sampled, 2, NEVER);
+        final List<Map<String, Long>> reports = new ArrayList<>();
+        policy.setListener(new ThreadPolicy.OnThreadPolicyReportListener() {
+            @Override public void onThreadPolicyReport(@NonNull Map<String, Long> samplesByCallSite, int sampleRate) {
+                reports.add(samplesByCallSite);
+            }
+        });
+        TestFuel.module().setThreadPolicy(policy);
+        assertNull(attainOffTheMainThread(4, false).get());
+        assertEquals(4, policy.getOffMainThreadAttainCount());
+
+        TestFuel.module().setThreadPolicy(null); // a last report
+        awaitReportingThreadEnd();
+        assertEquals(1, reports.size());
+        assertEquals(1, reports.get(0).size()); // one call site, Thread.run -- the tests share Fuel's package
+        assertEquals(Long.valueOf(2), reports.get(0).values().iterator().next());
+    }
+
+    @Test
+    public void sampledLogsWithoutAListener() throws InterruptedException {
+        TestFuel.module().setThreadPolicy(new ThreadPolicy(ThreadPolicy.Mode.Sampled, 1, NEVER));
+        assertNull(attainOffTheMainThread(3, false).get());
+
+        TestFuel.module().setThreadPolicy(null);
+        awaitReportingThreadEnd();
+        assertEquals(1, TestFuel.warnings.size());
+        assertTrue(TestFuel.warnings.get(0), TestFuel.warnings.get(0).contains("~3 attains off the main thread from "));
+    }
+
+    /** @return what the last attain threw, null when none did */
+    private static AtomicReference<Throwable> attainOffTheMainThread(final int times, final boolean allowed) throws InterruptedException {
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+                if (allowed) {
+                    ThreadPolicy.allowCurrentThread();
+                }
+                for (int i = 0; i < times; i++) {
+                    try {
+                        Lazy.attain(parent, Thing.class);
+                    } catch (Throwable t) {
+                        thrown.set(t);
+                    }
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+        return thrown;
+    }
+
+    private static void awaitReportingThreadEnd() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("FuelThreadPolicy".equals(thread.getName())) {
+                thread.join();
+            }
+        }
+    }
+}
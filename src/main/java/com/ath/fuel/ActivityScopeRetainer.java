@@ -0,0 +1,81 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the ActivitySingletons of an Activity recreated for a configuration change over to the Activity that replaces it.<br>
+ * <br>
+ * The Activity going away writes an id to its saved instance state and when it's destroyed while changing configurations its
+ * Activity scope is detached from the cache and kept under that id. The replacement is created with that same state, reads
+ * the id back and adopts the scope -- the old and new Activity are paired by the framework rather than guessed by class.<br>
+ * A scope nobody claimed by the time the next Activity resumes is released, the replacement is always created before then.<br>
+ * <br>
+ * Enable with {@link FuelModule#setRetainActivitySingletons(boolean)}.
+ */
+final class ActivityScopeRetainer {
+
+    private static final String KEY = "com.ath.fuel.retainedActivityScope";
+    private static final AtomicLong ids = new AtomicLong(System.nanoTime()); // a recreated process won't reuse an old id
+
+    /** The Activity scope of a destroyed Activity waiting for its replacement */
+    private static final class Retained {
+        final @NonNull Class<?> activityType;
+        final @NonNull Map<CacheKey, Object> cache;
+
+        Retained(@NonNull Class<?> activityType, @NonNull Map<CacheKey, Object> cache) {
+            this.activityType = activityType;
+            this.cache = cache;
+        }
+    }
+
+    private final @NonNull Map<Activity, String> saved = new WeakHashMap<>(); // saved while changing configurations -> id
+    private final @NonNull Map<String, Retained> retained = new HashMap<>(); // id -> detached, never more than a few
+
+    synchronized void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        if (!activity.isChangingConfigurations()) {
+            return;
+        }
+        String id = Long.toString(ids.incrementAndGet());
+        outState.putString(KEY, id);
+        saved.put(activity, id);
+    }
+
+    synchronized void onActivityDestroyed(@NonNull Activity activity, @NonNull ScopeCache scopeCache) {
+        String id = saved.remove(activity);
+        if (id == null || !activity.isChangingConfigurations()) {
+            return; // finishing for good, the scope goes with the Activity
+        }
+        Map<CacheKey, Object> detached = scopeCache.detach(Scope.Activity, activity);
+        if (detached != null && !detached.isEmpty()) {
+            retained.put(id, new Retained(activity.getClass(), detached));
+        }
+    }
+
+    synchronized void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState, @NonNull ScopeCache scopeCache) {
+        if (savedInstanceState == null || retained.isEmpty()) {
+            return;
+        }
+        String id = savedInstanceState.getString(KEY);
+        Retained scope = id == null ? null : retained.remove(id);
+        if (scope == null || scope.activityType != activity.getClass()) {
+            return;
+        }
+        int adopted = scopeCache.adopt(Scope.Activity, activity, scope.cache);
+        FLog.d("Retained %d ActivitySingletons across a configuration change of %s", adopted, activity);
+    }
+
+    synchronized void onActivityResumed(@NonNull Activity activity) {
+        if (!retained.isEmpty()) {
+            retained.clear(); // replacements are created before anything resumes, these were never claimed
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ath.fuel;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a non-final {@code Lazy<T>} field to be filled by Fuel rather than by a {@code Lazy.attain(this, T.class)} initializer.<br>
+ * All of an object's Attain fields are resolved together when it is ignited or constructed by Fuel, or on {@code FuelInjector.inject(Object)}.<br>
+ * A field that is already set is left alone.
+ */
+@Retention( RetentionPolicy.RUNTIME /* Reflectively read by the VM at runtime */ )
+@Target( ElementType.FIELD )
+public @interface Attain {
+
+    /** Annotations can't default to null, this stands in for the default flavor */
+    int DEFAULT_FLAVOR = Integer.MIN_VALUE;
+
+    int flavor() default DEFAULT_FLAVOR;
+}
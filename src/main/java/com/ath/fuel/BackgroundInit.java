@@ -0,0 +1,15 @@
+package com.ath.fuel;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * An {@link AppSingleton} or {@link ActivitySingleton} whose construction is never run on the main thread, ex: its constructor
+ * does I/O.<br>
+ * It's constructed on a background thread as soon as its scope begins when Fuel knows of it by then, and a main thread get()
+ * joins that construction rather than running it inline. See com.ath.fuel.BackgroundInitializer
+ */
+@Retention( RetentionPolicy.RUNTIME /* Reflectively read by the VM at runtime */ )
+public @interface BackgroundInit {
+
+}
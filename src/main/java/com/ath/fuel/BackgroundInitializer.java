@@ -0,0 +1,226 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.err.FuelBackgroundInitException;
+import com.ath.fuel.err.FuelInjectionException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Constructs the {@link BackgroundInit} singletons on background threads, never on the main thread.<br>
+ * <br>
+ * Construction is started as soon as the scope begins for the ones Fuel knows of by then:<br>
+ * - Application scope: the BackgroundInit AppSingletons bound in the module, when the Application is ignited<br>
+ * - Activity scope: the BackgroundInit ActivitySingletons an Activity of the same type used before, when the Activity is ignited<br>
+ * The rest start on their first get(). A get() on the main thread joins the construction in flight, and when it has to
+ * wait, for at most {@link #getTimeoutMillis()}, that's counted and reported via {@link OnBackgroundInitBlockedListener} when set,
+ * otherwise logged. A get() on any other thread constructs inline as always.<br>
+ * <br>
+ * The instance's injections and OnFueled run on the background thread along with its constructor.<br>
+ * <br>
+ * Configure with {@link FuelModule#setBackgroundInitializer(BackgroundInitializer)}.
+ */
+public final class BackgroundInitializer {
+
+    public static final int DEFAULT_THREADS = 2;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
+    public interface OnBackgroundInitBlockedListener {
+        /**
+         * Called on the main thread once it's done waiting, keep it short.
+         *
+         * @param leafType      what it waited for
+         * @param blockedMillis how long it waited, the timeout when it gave up
+         */
+        void onBackgroundInitBlocked(@NonNull Class<?> leafType, long blockedMillis);
+    }
+
+    /** A construction in flight, by scope object and cache key -- the same slot of the scope cache it will fill */
+    private static final class InFlightKey {
+        private final @NonNull Object scopeObject;
+        private final @NonNull CacheKey key;
+
+        InFlightKey(@NonNull Object scopeObject, @NonNull CacheKey key) {
+            this.scopeObject = scopeObject;
+            this.key = key;
+        }
+
+        @Override public int hashCode() {
+            return 31 * System.identityHashCode(scopeObject) + key.hashCode();
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (!(obj instanceof InFlightKey)) {
+                return false;
+            }
+            InFlightKey other = (InFlightKey) obj;
+            return scopeObject == other.scopeObject && key.equals(other.key);
+        }
+    }
+
+    private final long timeoutMillis;
+    private final @NonNull ThreadPoolExecutor executor;
+    private final @NonNull Map<InFlightKey, FutureTask<Object>> inFlight = new ConcurrentHashMap<>();
+    // Activity type -> type and flavor of the BackgroundInit ActivitySingletons it used, to start them with its next instance
+    private final @NonNull Map<Class<?>, Set<CacheKey>> usedByActivityType = new ConcurrentHashMap<>();
+    private final @NonNull AtomicLong blockedCount = new AtomicLong();
+    private final @NonNull AtomicLong blockedMillis = new AtomicLong();
+    private volatile @Nullable OnBackgroundInitBlockedListener listener;
+
+    public BackgroundInitializer() {
+        this(DEFAULT_THREADS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param threads       how many constructions may run at once, they tend to be I/O bound
+     * @param timeoutMillis how long a main thread get() waits before it fails with a {@link FuelBackgroundInitException}
+     */
+    public BackgroundInitializer(int threads, long timeoutMillis) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1 but was " + threads);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be at least 1 but was " + timeoutMillis);
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.executor = FuelExecutors.newDaemonPool("FuelBackgroundInit", threads);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setListener(@Nullable OnBackgroundInitBlockedListener listener) {
+        this.listener = listener;
+    }
+
+    /** How many times a main thread get() had to wait on a construction */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /** How long main thread get()s waited on constructions, in total */
+    public long getBlockedMillis() {
+        return blockedMillis.get();
+    }
+
+    /** Start the construction of the given BackgroundInit singleton, unless it's already in flight */
+    void start(@NonNull Context context, @NonNull Class<?> type, @Nullable Integer flavor) {
+        Class<?> leafType = FuelInjector.get().getRootModule().toLeafType(type, flavor);
+        submit(context, type, flavor, CacheKey.attain(leafType, flavor));
+    }
+
+    /** The Activity scope began, start what the previous Activity of this type used */
+    void startActivityScope(@NonNull Activity activity) {
+        Set<CacheKey> used = usedByActivityType.get(activity.getClass());
+        if (used != null) {
+            for (CacheKey typeAndFlavor : used) { // the type as requested, not the leaf
+                start(activity, typeAndFlavor.getLeafType(), typeAndFlavor.getFlavor());
+            }
+        }
+    }
+
+    /**
+     * From the main thread, wait for the given BackgroundInit singleton to be constructed, starting it if need be.
+     *
+     * @param key the lazy's cache key
+     * @return the instance, now in the scope cache
+     */
+    @NonNull Object join(@NonNull Lazy<?> lazy, @NonNull CacheKey key) throws FuelInjectionException {
+        Context context = lazy.getContext();
+        FutureTask<Object> task = submit(context, lazy.getType(), lazy.getFlavor(), key);
+        if (task.isDone()) {
+            return get(task, lazy, 0);
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            return get(task, lazy, timeoutMillis);
+        } finally {
+            long waited = System.currentTimeMillis() - start;
+            blockedCount.incrementAndGet();
+            blockedMillis.addAndGet(waited);
+            OnBackgroundInitBlockedListener listener = this.listener;
+            if (listener != null) {
+                listener.onBackgroundInitBlocked(lazy.getLeafType(), waited);
+            } else {
+                FLog.w("BackgroundInit: main thread waited %d ms for %s", waited, lazy.getLeafType().getName());
+            }
+        }
+    }
+
+    private @NonNull Object get(@NonNull FutureTask<Object> task, @NonNull Lazy<?> lazy, long timeoutMillis) throws FuelInjectionException {
+        try {
+            return timeoutMillis > 0 ? task.get(timeoutMillis, TimeUnit.MILLISECONDS) : task.get();
+        } catch (TimeoutException e) {
+            throw new FuelBackgroundInitException(e, "Gave up after %d ms waiting on the background construction of %s", timeoutMillis,
+                    lazy.getLeafType().getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FuelBackgroundInitException(e, "Interrupted waiting on the background construction of %s", lazy.getLeafType().getName());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FuelInjectionException) {
+                throw (FuelInjectionException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FuelInjectionException(e, "Background construction of %s failed", lazy.getLeafType().getName());
+        }
+    }
+
+    private @NonNull FutureTask<Object> submit(@NonNull final Context context, @NonNull final Class<?> type, @Nullable final Integer flavor,
+                                               @NonNull CacheKey key) {
+        if (context instanceof Activity) {
+            remember(context.getClass(), CacheKey.attain(type, flavor));
+        }
+
+        final InFlightKey inFlightKey = new InFlightKey(context, key);
+        FutureTask<Object> task = inFlight.get(inFlightKey);
+        if (task != null) {
+            return task;
+        }
+        task = new FutureTask<Object>(new Callable<Object>() {
+            @Override public Object call() {
+                return Lazy.attain(context, type, flavor).get(); // a Lazy of its own, the caller's is locked while it waits
+            }
+        }) {
+            @Override protected void done() {
+                inFlight.remove(inFlightKey, this); // the scope cache has it from here on
+            }
+        };
+        FutureTask<Object> raced = inFlight.putIfAbsent(inFlightKey, task);
+        if (raced != null) {
+            return raced;
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    private void remember(@NonNull Class<?> activityType, @NonNull CacheKey typeAndFlavor) {
+        Set<CacheKey> used = usedByActivityType.get(activityType);
+        if (used == null) {
+            used = Collections.newSetFromMap(new ConcurrentHashMap<CacheKey, Boolean>());
+            Set<CacheKey> raced = usedByActivityType.putIfAbsent(activityType, used);
+            if (raced != null) {
+                used = raced;
+            }
+        }
+        used.add(typeAndFlavor);
+    }
+}
@@ -1,11 +1,11 @@
 package com.ath.fuel;
 
 
-class CacheKey {
+public class CacheKey {
 
     public static final Integer DEFAULT_FLAVOR = null;
-    private Class<?> leafType; // compared by address not by value so be careful
-    private Integer flavor; // compared by address not by value so be careful
+    private final Class<?> leafType; // compared by address not by value so be careful
+    private final Integer flavor; // compared by address not by value so be careful
 
     private CacheKey( Class<?> leafType ) {
         this( leafType, DEFAULT_FLAVOR );
@@ -25,10 +25,6 @@ class CacheKey {
         return new CacheKey( leafType, flavor );
     }
 
-    public static CacheKey attain( Lazy lazy ) {
-        return new CacheKey(lazy.getLeafType(), lazy.getFlavor() );
-    }
-
     public Class<?> getLeafType() {
         return leafType;
     }
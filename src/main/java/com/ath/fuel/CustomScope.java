@@ -0,0 +1,48 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A user defined scope with an explicit lifecycle, ex: a logged-in user session or a checkout flow.<br>
+ * Sits between {@link Scope#Application} and {@link Scope#Activity}: it spans Activities but not the whole app.<br>
+ * <br>
+ * Declared while configuring the FuelModule, optionally nested under another custom scope, and
+ * identified by a key class that {@link ScopedSingleton}s refer to.<br>
+ * A nested scope can access its ancestors but not the other way around, same as {@link Scope#canAccess(Scope)}.
+ */
+public final class CustomScope {
+    private final @NonNull Class<?> key;
+    private final @Nullable CustomScope parent;
+
+    CustomScope(@NonNull Class<?> key, @Nullable CustomScope parent) {
+        this.key = key;
+        this.parent = parent;
+    }
+
+    public @NonNull Class<?> getKey() {
+        return key;
+    }
+
+    /** @return the scope this one is nested under, null when directly under Application */
+    public @Nullable CustomScope getParent() {
+        return parent;
+    }
+
+    /**
+     * Do I have access to the given scope?<br>
+     * True for this scope and its ancestors.
+     */
+    public boolean canAccess(@Nullable CustomScope scope) {
+        for (CustomScope s = this; s != null; s = s.parent) {
+            if (s == scope) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override public @NonNull String toString() {
+        return "CustomScope[" + key.getSimpleName() + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package com.ath.fuel;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * An {@link OnFueled} type whose onFueled can wait for the main thread to be idle rather than run right after injection,
+ * when an idle scheduler is set -- it must work as injected until then.<br>
+ * See com.ath.fuel.FuelModule#setIdleScheduler
+ */
+@Retention( RetentionPolicy.RUNTIME /* Reflectively read by the VM at runtime */ )
+public @interface DeferOnFueled {
+
+}
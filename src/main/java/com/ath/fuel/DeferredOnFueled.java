@@ -0,0 +1,154 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The onFueled calls of {@link DeferOnFueled} types, queued in the order they came in and run when the {@link IdleScheduler}
+ * says so, only ever from its tasks or on its thread.<br>
+ * An instance is fueled after everything it was constructed with, so that order runs dependencies first. An onFueled that is
+ * not deferred only waits for the deferred constructor arguments it was constructed with, see {@link #runDependencies(Lazy, IdleScheduler)}.<br>
+ * Drained in slices of {@link #SLICE_MILLIS} so a long queue doesn't become a long frame, the rest waits for the next idle.
+ */
+final class DeferredOnFueled {
+
+    static final long SLICE_MILLIS = 4;
+
+    private final @NonNull Queue<Lazy<?>> pending = new ConcurrentLinkedQueue<>();
+    private final @NonNull AtomicBoolean scheduled = new AtomicBoolean();
+    // constructed lazy -> the queued lazies its instance was constructed with, guarded by itself. Weak, a failed construction never asks
+    private final @NonNull Map<Lazy<?>, List<Lazy<?>>> dependencies = new WeakHashMap<>();
+    // queued instance -> its lazy, guarded by dependencies. Holds an ignited instance until its turn, the queue's lazy only holds it weakly
+    private final @NonNull Map<Object, Lazy<?>> queuedByInstance = new IdentityHashMap<>();
+
+    /** @param lazy its instance is an OnFueled */
+    void defer(@NonNull Lazy<?> lazy, @NonNull IdleScheduler scheduler) {
+        synchronized (dependencies) {
+            queuedByInstance.put(lazy.getInstance(), lazy);
+        }
+        pending.add(lazy);
+        schedule(scheduler);
+    }
+
+    /**
+     * Remember which of the given constructor arguments still have their onFueled queued, before the instance of lazy is
+     * constructed with them.
+     */
+    void recordDependencies(@NonNull Lazy<?> lazy, @NonNull Object[] args) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        synchronized (dependencies) {
+            List<Lazy<?>> queued = null;
+            for (Object arg : args) {
+                Lazy<?> dependency = arg == null ? null : queuedByInstance.get(arg);
+                if (dependency != null) {
+                    if (queued == null) {
+                        queued = new ArrayList<>(args.length);
+                    }
+                    queued.add(dependency);
+                }
+            }
+            if (queued != null) {
+                dependencies.put(lazy, queued);
+            }
+        }
+    }
+
+    /**
+     * Before the onFueled of lazy, which is not deferred, runs: run the queued onFueled of what it was constructed with.<br>
+     * Only on the scheduler's thread, where the queued ones would have run. Anywhere else lazy is queued behind them instead.
+     *
+     * @param scheduler null when deferral was turned off since, lazy then runs without waiting
+     * @return false when lazy was queued and must not run now
+     */
+    boolean runDependencies(@NonNull Lazy<?> lazy, @Nullable IdleScheduler scheduler) {
+        if (pending.isEmpty()) {
+            return true; // whatever it was constructed with has run
+        }
+        List<Lazy<?>> queued;
+        synchronized (dependencies) {
+            queued = dependencies.remove(lazy);
+        }
+        if (queued == null || scheduler == null) {
+            return true;
+        }
+        if (!scheduler.isSchedulerThread()) {
+            defer(lazy, scheduler); // after its dependencies, so the queue's order runs them first
+            return false;
+        }
+        for (Lazy<?> dependency : queued) {
+            runAhead(dependency);
+        }
+        return true;
+    }
+
+    /** Run the onFueled of a queued lazy now, after the queued ones it was constructed with; the queue skips it later */
+    private void runAhead(@NonNull Lazy<?> lazy) {
+        List<Lazy<?>> queued;
+        synchronized (dependencies) {
+            queued = dependencies.remove(lazy);
+        }
+        if (queued != null) {
+            for (Lazy<?> dependency : queued) {
+                runAhead(dependency);
+            }
+        }
+        dispatch(lazy);
+    }
+
+    private void schedule(@NonNull final IdleScheduler scheduler) {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.scheduleIdle(new Runnable() {
+                @Override public void run() {
+                    scheduled.set(false); // before draining, so what's deferred meanwhile schedules another slice
+                    drain(TimeUnit.MILLISECONDS.toNanos(SLICE_MILLIS));
+                    if (!pending.isEmpty()) {
+                        schedule(scheduler);
+                    }
+                }
+            });
+        }
+    }
+
+    private void drain(long sliceNanos) {
+        long start = System.nanoTime();
+        Lazy<?> lazy;
+        while ((lazy = pending.poll()) != null) {
+            dispatch(lazy);
+            if (System.nanoTime() - start >= sliceNanos) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(@NonNull Lazy<?> lazy) {
+        Object instance = lazy.getInstance();
+        if (instance != null) {
+            synchronized (dependencies) {
+                if (queuedByInstance.get(instance) == lazy) {
+                    queuedByInstance.remove(instance);
+                }
+                dependencies.remove(lazy);
+            }
+        }
+        if (instance == null || !lazy.setOnFueledCalled()) {
+            return; // collected while it waited, fueled by a racing ignite or run ahead of the queue
+        }
+        try {
+            ((OnFueled) instance).onFueled();
+        } catch (Exception e) {
+            FLog.e(e);
+        }
+    }
+}
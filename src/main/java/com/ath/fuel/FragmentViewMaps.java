@@ -29,11 +29,11 @@ public final class FragmentViewMaps { // TODO: move to DI ?
     }
 
     //    private WeakHashMap<View, WeakReference<Fragment>> map = new WeakHashMap<>();
-    private WeakHashMap<Fragment, WeakReference<View>> rmap = new WeakHashMap<>();
+    private final WeakHashMap<Fragment, WeakReference<View>> rmap = new WeakHashMap<>(); // guarded by this
 
     private FragmentViewMaps() { }
 
-    public void associate(@NonNull View view, @NonNull Fragment fragment) {
+    public synchronized void associate(@NonNull View view, @NonNull Fragment fragment) {
 //        map.put(view, new WeakReference<>(fragment));
         rmap.put(fragment, new WeakReference<>(view));
     }
@@ -47,7 +47,7 @@ public final class FragmentViewMaps { // TODO: move to DI ?
      * Why? Because when we igniteViewRoot for fragment, the given view is not yet attached to the fragment
      * so we remember it here in the mean time.
      */
-    public @Nullable View lookup(@NonNull Fragment fragment) {
+    public synchronized @Nullable View lookup(@NonNull Fragment fragment) {
         WeakReference<View> ref = rmap.get(fragment);
         return ref == null ? null : ref.get();
     }
@@ -3,18 +3,35 @@ package com.ath.fuel;
 import android.app.Application;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.ath.fuel.FuelModule.FuelProvider;
+import com.ath.fuel.err.FuelInjectionBindException;
+
+import java.util.Set;
 
 public class FuelConfigurator {
     public final @NonNull FuelProvider REFLECTIVE_PROVIDER;
     private final @NonNull FuelModule module;
+    private final @Nullable Set<Class<?>> ownedKeys; // null when not lazily configured, see FuelModule#addModule(FuelSubmodule, Class[])
 
     public FuelConfigurator(@NonNull FuelModule module) {
+        this(module, null);
+    }
+
+    FuelConfigurator(@NonNull FuelModule module, @Nullable Set<Class<?>> ownedKeys) {
         this.module = module;
+        this.ownedKeys = ownedKeys;
         REFLECTIVE_PROVIDER = module.REFLECTIVE_PROVIDER;
     }
 
+    /** A lazily configured submodule may only bind the keys it registered, nothing else would trigger its configure */
+    private void checkOwned(Class<?> from) {
+        if (ownedKeys != null && FuelInjector.get().isDebug() && !ownedKeys.contains(from)) {
+            throw new FuelInjectionBindException("bind failure %s is bound by a lazily configured submodule that did not register it", from);
+        }
+    }
+
     public Application getApp() {
         return module.getApplication();
     }
@@ -40,6 +57,7 @@ public class FuelConfigurator {
      * @param to
      */
     public final void bind(Class<?> from, Class<?> to) {
+        checkOwned(from);
         module.bind(from, to);
     }
 
@@ -54,6 +72,7 @@ public class FuelConfigurator {
      * @see #bind(Class, Class)
      */
     public final void bind(Class<?> from, @NonNull Object to) {
+        checkOwned(from);
         module.bind(from, to);
     }
 
@@ -68,10 +87,26 @@ public class FuelConfigurator {
      * @see #bind(Class, Class)
      */
     public final <BASE, DERIVED extends BASE> void bind(Class<BASE> from, FuelProvider<DERIVED> to) {
+        checkOwned(from);
         module.bind(from, to);
     }
 
     public final void bindReflectively(Class from) {
+        checkOwned(from);
         module.bindReflectively(from);
     }
+
+    /**
+     * @see FuelModule#declareScope(Class)
+     */
+    public final @NonNull CustomScope declareScope(@NonNull Class<?> key) {
+        return module.declareScope(key);
+    }
+
+    /**
+     * @see FuelModule#declareScope(Class, CustomScope)
+     */
+    public final @NonNull CustomScope declareScope(@NonNull Class<?> key, @Nullable CustomScope parent) {
+        return module.declareScope(key, parent);
+    }
 }
\ No newline at end of file
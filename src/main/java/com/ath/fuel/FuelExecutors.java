@@ -0,0 +1,45 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pools behind Fuel's own background work.<br>
+ * Plain ThreadPoolExecutors rather than a ForkJoinPool, which the oldest Android versions Fuel supports don't have.
+ */
+final class FuelExecutors {
+
+    private FuelExecutors() {
+    }
+
+    /**
+     * Daemon threads, created as needed and let go after 30 seconds idle. Their attains are Fuel's own and never violate the
+     * {@link ThreadPolicy}.
+     *
+     * @param name prefix of the thread names
+     */
+    static @NonNull ThreadPoolExecutor newDaemonPool(@NonNull final String name, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override public Thread newThread(@NonNull final Runnable runnable) {
+                        Thread thread = new Thread(new Runnable() {
+                            @Override public void run() {
+                                ThreadPolicy.allowCurrentThread(); // off the main thread is the point
+                                runnable.run();
+                            }
+                        }, name + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true); // nothing to do most of the time
+        return executor;
+    }
+}
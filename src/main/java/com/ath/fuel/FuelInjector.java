@@ -20,44 +20,60 @@ import com.ath.fuel.err.FuelScopeViolationException;
 import com.ath.fuel.err.FuelUnableToObtainContextException;
 
 import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings({"unchecked", "WeakerAccess", "FinalPrivateMethod", "FinalStaticMethod", "unused", "UnusedAssignment", "SameParameterValue"})
 public final class FuelInjector {
     @NonNull static final FuelInjector injector = new FuelInjector();
 
-    private static final Map<Class, Boolean> isAppSingletonCache = new HashMap<>();
-    private static final Map<Class, Boolean> isSingletonCache = new HashMap<>();
-    private static final Map<Class, Boolean> isActSingletonCache = new HashMap<>();
-    private static final Map<Class, Boolean> isViewRootSingletonCache = new HashMap<>();
-    private static final Map<Class, Boolean> isAppCache = new HashMap<>();
-    private static final Map<Class, Boolean> isActCache = new HashMap<>();
-    private static final Map<Class, Boolean> isFragCache = new HashMap<>();
-    private static final Map<Class, Boolean> isServCache = new HashMap<>();
-    private static final Map<Class, Boolean> isContextCache = new HashMap<>();
-    private static final Map<Class, Boolean> isInjectionRequired = new HashMap<>();
+    private static final Map<Class, Boolean> isAppSingletonCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isSingletonCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isActSingletonCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isViewRootSingletonCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isScopedSingletonCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isBackgroundInitCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isDeferOnFueledCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isAppCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isActCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isFragCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isServCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isContextCache = new ConcurrentHashMap<>();
+    private static final Map<Class, Boolean> isInjectionRequired = new ConcurrentHashMap<>();
 
     public static @NonNull FuelInjector get() {
         return injector;
     }
 
-    private Application app;
-    private long mainThreadId;
-    private FuelModule rootModule;
-    private final WeakHashMap<Object, Queue<Lazy>> preprocessQueue = new WeakHashMap<>(); // LazyParent -> Queue<LazyChildren>
-    private final WeakHashMap<Context, WeakReference<Context>> contextToWeakContextCache = new WeakHashMap<>();
-    private final Map<Object, WeakHashMap<Object, Lazy>> lazyCache = Collections.synchronizedMap(new WeakHashMap<Object, WeakHashMap<Object, Lazy>>());
+    // Written once by ignite(Application, FuelModule), rootModule last -- it's what publishes the app and the bindings.
+    private volatile Application app;
+    private volatile long mainThreadId;
+    private volatile FuelModule rootModule;
+
+    // WeakHashMap mutates itself on read (expunging stale entries) so every access goes through the synchronized wrapper.
+    // The per-parent queues are guarded by the parent, see enqueueLazy.
+    private final Map<Object, Queue<Lazy>> preprocessQueue = Collections.synchronizedMap(new WeakHashMap<Object, Queue<Lazy>>()); // LazyParent -> Queue<LazyChildren>
+    private final Map<Context, WeakReference<Context>> contextToWeakContextCache = Collections.synchronizedMap(new WeakHashMap<Context, WeakReference<Context>>());
+    private final Map<Object, Map<Object, Lazy>> lazyCache = Collections.synchronizedMap(new WeakHashMap<Object, Map<Object, Lazy>>());
+    private final Map<CustomScope, ScopeHandle> activeScopes = new ConcurrentHashMap<>(); // read from any thread, begin/end guarded by itself
+    private final Map<Class<?>, CustomScope> leafTypeToCustomScope = new ConcurrentHashMap<>();
+    private final Map<Object, Map<CacheKey, Object>> lazyMemo = new WeakHashMap<>(); // Parent -> Type+Flavor -> Lazy or WeakReference to it, guarded by itself
+
+    private volatile WeakReference<Context> appContextRef;
 
     private final long startTimeMillis = System.currentTimeMillis();
-    private static boolean isDebug = false;
+    private static volatile boolean isDebug = false;
 
     private FuelInjector() {
     }
@@ -65,11 +81,17 @@ public final class FuelInjector {
     @MainThread
     public final void ignite(@NonNull Application app, @NonNull FuelModule rootModule) {
         if (this.rootModule == null) {
-            this.rootModule = rootModule;
             this.app = app;
             mainThreadId = Thread.currentThread().getId();
-            this.rootModule.configure(app);
+            rootModule.configureBindings(app);
+            rootModule.startResolutionSnapshot(); // against the bindings just configured, before anything resolves
+            this.rootModule = rootModule; // publish only once configured, no thread may see a half bound module
             ignite(app, app);
+            rootModule.startBackgroundInit(app); // the Application scope has begun
+            StartupProfiler profiler = rootModule.getStartupProfiler();
+            if (profiler != null) {
+                profiler.start(app); // after the app is ignited, the warmup attains against it
+            }
         }
     }
 
@@ -81,11 +103,15 @@ public final class FuelInjector {
     @MainThread
     public final void ignite(@NonNull Activity activity) {
         ignite(activity, activity);
+        if (isInitialized()) {
+            getRootModule().getBackgroundInitializer().startActivityScope(activity); // the Activity scope has begun
+        }
     }
 
     @MainThread
     public final void ignite(@NonNull View view) {
         if (view.isInEditMode()) {
+            inject(view); // edit mode Lazies so the layout editor doesn't trip over null fields
             return; // Bail out if in edit mode
         }
 
@@ -145,21 +171,111 @@ public final class FuelInjector {
         }
     }
 
+    /**
+     * Fills the instance's null {@link Attain} fields in one go.<br>
+     * An ignited instance has them pre-processed right away, otherwise they wait for its ignite like any attained Lazy.<br>
+     * <br>
+     * NOTE:<br>
+     * Not needed for instances Fuel constructs or ignites, their Attain fields are filled before {@link OnFueled#onFueled()}.<br>
+     * Call it when the Lazies must exist before ignite, ex: a constructor that hands them out.<br>
+     * <br>
+     * Safe to call more than once, fields that are already set are left alone.
+     */
+    public final void inject(@NonNull Object instance) {
+        try {
+            InjectionPlan plan = InjectionPlan.of(instance.getClass());
+            if (plan.isEmpty()) {
+                return;
+            }
+            boolean isInEditMode = instance instanceof View && ((View) instance).isInEditMode();
+            if (!isInEditMode && isInitialized()) {
+                plan.configureOwners(getRootModule());
+            }
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as enqueueLazy and injectFields
+            synchronized (instance) { // the null fields are read and filled under one lock, a racing ignite can't fill them too
+                InjectionPlan.Injection injection = plan.attain(instance, isInEditMode);
+                if (!isInEditMode && !injection.getLazies().isEmpty()) {
+                    Lazy lazyParent = findLazyByInstance(instance);
+                    if (Lazy.isPreProcessed(lazyParent)) {
+                        doPreProcessChildren(injection.getLazies(), lazyParent);
+                    } else {
+                        getPreprocessQueue(instance, false).addAll(injection.getLazies());
+                    }
+                }
+                injection.assign(instance);
+            }
+        } catch (Exception e) {
+            throw doFailure(null, e);
+        }
+    }
+
+    /**
+     * Fills the null {@link Attain} fields of a newly fueled instance, before its onFueled.
+     *
+     * @param parent must be preProcessed and have an instance
+     */
+    void injectFields(@NonNull Lazy parent) throws FuelInjectionException {
+        Object instance = parent.getInstance();
+        if (instance == null) {
+            return;
+        }
+        InjectionPlan plan = InjectionPlan.of(instance.getClass());
+        if (plan.isEmpty()) {
+            return;
+        }
+        plan.configureOwners(findModule(parent));
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as inject
+        synchronized (instance) {
+            InjectionPlan.Injection injection = plan.attain(instance, false);
+            doPreProcessChildren(injection.getLazies(), parent);
+            injection.assign(instance);
+        }
+    }
+
     static final Object VIEW_ROOT_SENTINEL = new Object();
 
     public final @NonNull View igniteViewRoot(@NonNull View view) {
         view.setTag(R.id.fuel_view_root, VIEW_ROOT_SENTINEL);
+        watchViewRoot(view);
         ignite(view);
         return view;
     }
 
     public final @NonNull View igniteViewRootFragment(@NonNull View view, Fragment fragment) {
         view.setTag(R.id.fuel_view_root, VIEW_ROOT_SENTINEL);
+        watchViewRoot(view);
         FragmentViewMaps.get(view.getContext()).associate(view, fragment);
         ignite(view.getContext(), fragment);
         return view;
     }
 
+    /** When a {@link ScopeLeakWatcher} is enabled, a detached ViewRoot is watched until it's collected or re-attached */
+    private void watchViewRoot(@NonNull View view) {
+        if (!isInitialized() || getRootModule().getScopeLeakWatcher() == null) {
+            return;
+        }
+        if (view.getTag(R.id.fuel_view_root_watcher) != null) {
+            return; // ignited more than once, already listening
+        }
+        View.OnAttachStateChangeListener listener = new View.OnAttachStateChangeListener() {
+            @Override public void onViewAttachedToWindow(View v) {
+                ScopeLeakWatcher watcher = getRootModule().getScopeLeakWatcher();
+                if (watcher != null) {
+                    watcher.unwatch(v);
+                }
+            }
+
+            @Override public void onViewDetachedFromWindow(View v) {
+                ScopeLeakWatcher watcher = getRootModule().getScopeLeakWatcher();
+                if (watcher != null) {
+                    watcher.watch(v, Scope.ViewRoot);
+                }
+            }
+        };
+        view.setTag(R.id.fuel_view_root_watcher, listener);
+        view.addOnAttachStateChangeListener(listener);
+    }
+
     /**
      * True will tighten up tolerances for quicker failures and more verbosity
      */
@@ -194,6 +310,16 @@ public final class FuelInjector {
         }
     }
 
+    /** {@link #getContextRef(Context)} of the app, which never changes so it's resolved once */
+    @NonNull WeakReference<Context> getAppContextRef() {
+        WeakReference<Context> ref = appContextRef;
+        if (ref == null) {
+            ref = getContextRef(getApp());
+            appContextRef = ref; // racing threads resolve the same ref
+        }
+        return ref;
+    }
+
     /**
      * Get the real context when the given context is a wrapper
      *
@@ -260,10 +386,114 @@ public final class FuelInjector {
         return singleton;
     }
 
+    /** A {@link BackgroundInit} App or Activity singleton, on any other type the annotation means nothing */
+    final boolean isBackgroundInit(Class<?> leafType) {
+        Boolean backgroundInit = isBackgroundInitCache.get(leafType);
+        if (backgroundInit == null) {
+            backgroundInit = leafType.isAnnotationPresent(BackgroundInit.class) && (isAppSingleton(leafType) || isActivitySingleton(leafType));
+            isBackgroundInitCache.put(leafType, backgroundInit);
+        }
+        return backgroundInit;
+    }
+
+    final boolean isDeferOnFueled(Class<?> type) {
+        Boolean defer = isDeferOnFueledCache.get(type);
+        if (defer == null) {
+            defer = type.isAnnotationPresent(DeferOnFueled.class);
+            isDeferOnFueledCache.put(type, defer);
+        }
+        return defer;
+    }
+
+    final boolean isScopedSingleton(Class<?> leafType) {
+        Boolean singleton = isScopedSingletonCache.get(leafType);
+        if (singleton == null) {
+            singleton = leafType.isAnnotationPresent(ScopedSingleton.class);
+            isScopedSingletonCache.put(leafType, singleton);
+        }
+        return singleton;
+    }
+
+    /**
+     * @param leafType must be a {@link ScopedSingleton}
+     * @throws FuelInjectionException when its scope was never declared
+     */
+    final @NonNull CustomScope toCustomScope(@NonNull Class<?> leafType) throws FuelInjectionException {
+        CustomScope scope = leafTypeToCustomScope.get(leafType);
+        if (scope == null) {
+            Class<?> key = leafType.getAnnotation(ScopedSingleton.class).value();
+            scope = getRootModule().getCustomScope(key);
+            if (scope == null) {
+                throw new FuelInjectionException("%s is a ScopedSingleton of %s which was never declared, see FuelModule.declareScope",
+                        leafType.getSimpleName(), key.getSimpleName());
+            }
+            leafTypeToCustomScope.put(leafType, scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Begin a run of a declared {@link CustomScope}, its {@link ScopedSingleton}s live until the returned handle is ended.<br>
+     * A nested scope may only begin while its parent is active.
+     *
+     * @throws IllegalStateException when the scope is already active or its parent is not
+     */
+    public final @NonNull ScopeHandle beginScope(@NonNull CustomScope scope) {
+        if (getRootModule().getCustomScope(scope.getKey()) != scope) {
+            throw new IllegalArgumentException(scope + " was not declared by the root module");
+        }
+        synchronized (activeScopes) {
+            if (activeScopes.containsKey(scope)) {
+                throw new IllegalStateException(scope + " has already begun, end it before beginning it again");
+            }
+            CustomScope parent = scope.getParent();
+            if (parent != null && !activeScopes.containsKey(parent)) {
+                throw new IllegalStateException(scope + " cannot begin before its parent " + parent);
+            }
+            ScopeHandle handle = new ScopeHandle(scope);
+            activeScopes.put(scope, handle);
+            return handle;
+        }
+    }
+
+    /**
+     * @return the current run of the given scope, null when it is not active
+     */
+    public final @Nullable ScopeHandle getActiveScope(@Nullable CustomScope scope) {
+        return scope == null ? null : activeScopes.get(scope);
+    }
+
+    /** see {@link ScopeHandle#end()} */
+    final void endScope(@NonNull ScopeHandle handle) {
+        List<ScopeHandle> ended = new ArrayList<>();
+        synchronized (activeScopes) {
+            if (activeScopes.get(handle.getScope()) != handle) {
+                return; // already ended
+            }
+            for (ScopeHandle active : activeScopes.values()) {
+                if (active.getScope().canAccess(handle.getScope())) { // itself and anything nested under it
+                    ended.add(active);
+                }
+            }
+            for (ScopeHandle end : ended) {
+                activeScopes.remove(end.getScope());
+                end.deactivate();
+            }
+        }
+
+        // A get() racing the end may still cache against an ended handle, it goes when the handle is collected.
+        for (ScopeHandle end : ended) {
+            int released = getRootModule().releaseScopeObject(Scope.Custom, end);
+            if (isDebug()) {
+                FLog.leaveBreadCrumb("end %s released %s instances", end, released);
+            }
+        }
+    }
+
     final boolean isSingleton(Class<?> leafType) {
         Boolean singleton = isSingletonCache.get(leafType);
         if (singleton == null) {
-            singleton = (isAppSingleton(leafType) || isActivitySingleton(leafType) || isViewRootSingleton(leafType));
+            singleton = (isAppSingleton(leafType) || isActivitySingleton(leafType) || isViewRootSingleton(leafType) || isScopedSingleton(leafType));
             isSingletonCache.put(leafType, singleton);
         }
         return singleton;
@@ -341,10 +571,13 @@ public final class FuelInjector {
         if (scopeObject == null) {
             scopeObject = lazy.getContext();
         }
-        WeakHashMap<Object, Lazy> parentToLazies = lazyCache.get(scopeObject);
-        if (parentToLazies == null) {
-            parentToLazies = new WeakHashMap<>();
-            lazyCache.put(scopeObject, parentToLazies);
+        Map<Object, Lazy> parentToLazies;
+        synchronized (lazyCache) { // get-or-create must be atomic or a racing thread replaces the map and loses our entry
+            parentToLazies = lazyCache.get(scopeObject);
+            if (parentToLazies == null) {
+                parentToLazies = Collections.synchronizedMap(new WeakHashMap<Object, Lazy>());
+                lazyCache.put(scopeObject, parentToLazies);
+            }
         }
         parentToLazies.put(instance, lazy);
     }
@@ -357,7 +590,7 @@ public final class FuelInjector {
         //for ( Object scopeObject : injector.lazyCache.keySet() ) {
         for (Object scopeObject : scopedObjects) {
             if (scopeObject != null) {
-                WeakHashMap<Object, Lazy> parentToLazies = lazyCache.get(scopeObject);
+                Map<Object, Lazy> parentToLazies = lazyCache.get(scopeObject);
                 if (parentToLazies != null) {
                     Lazy lazy = parentToLazies.get(instance);
                     if (lazy != null) {
@@ -369,6 +602,97 @@ public final class FuelInjector {
         return null;
     }
 
+    /** see {@link Lazy#attainMemoized(Object, Class, Integer)} */
+    final @NonNull <T> Lazy<T> attainMemoized(@NonNull Object parent, @NonNull Class<T> type, Integer flavor) {
+        CacheKey key = CacheKey.attain(type, flavor); // type as requested, not the leaf -- that's not known until pre-processed
+        Map<CacheKey, Object> memo;
+        synchronized (lazyMemo) {
+            memo = lazyMemo.get(parent);
+            if (memo == null) {
+                memo = new HashMap<>();
+                lazyMemo.put(parent, memo);
+            }
+        }
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (memo) {
+            @SuppressWarnings("unchecked") Lazy<T> lazy = (Lazy<T>) toMemoizedLazy(memo.get(key));
+            if (lazy == null) {
+                lazy = Lazy.attain(parent, type, flavor);
+                boolean strongly = isInitialized() && getRootModule().isMemoizeLaziesStrongly();
+                memo.put(key, strongly ? lazy : new WeakReference<Lazy>(lazy));
+            }
+            return lazy;
+        }
+    }
+
+    private static @Nullable Lazy toMemoizedLazy(@Nullable Object memoized) {
+        return memoized instanceof WeakReference ? (Lazy) ((WeakReference) memoized).get() : (Lazy) memoized;
+    }
+
+    /**
+     * Drop the memos of parents whose memoized Lazies resolved against the given Activity, it's destroyed.<br>
+     * With {@link FuelModule#setMemoizeLaziesStrongly(boolean)} a memoized instance that references its parent would otherwise
+     * keep the parent, so its memo, alive for good.
+     */
+    final void releaseMemoizedLazies(@NonNull Activity activity) {
+        synchronized (lazyMemo) {
+            Iterator<Map.Entry<Object, Map<CacheKey, Object>>> iterator = lazyMemo.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Object, Map<CacheKey, Object>> entry = iterator.next();
+                if (entry.getKey() == activity || isMemoizedIn(entry.getValue(), activity)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean isMemoizedIn(@NonNull Map<CacheKey, Object> memo, @NonNull Activity activity) {
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as attainMemoized
+        synchronized (memo) {
+            for (Object memoized : memo.values()) {
+                Lazy lazy = toMemoizedLazy(memoized);
+                if (lazy != null && lazy.getContextIfPresent() == activity) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** see {@link Lazy#attainAll(Object, Class[])} */
+    final @NonNull List<Lazy<?>> attainAll(@NonNull Object parent, @NonNull Class<?>... types) {
+        boolean isInEditMode = parent instanceof View && ((View) parent).isInEditMode();
+        List<Lazy<?>> lazies = new ArrayList<>(types.length);
+        for (Class<?> type : types) {
+            lazies.add(Lazy.newInstanceInjected(parent, type, CacheKey.DEFAULT_FLAVOR, isInEditMode));
+        }
+        if (isInEditMode || lazies.isEmpty()) {
+            return lazies;
+        }
+
+        try {
+            if (isInitialized()) {
+                for (Class<?> type : types) {
+                    getRootModule().configureOwnerOf(type); // before locking the parent
+                }
+            }
+            Lazy lazyParent;
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as enqueueLazy
+            synchronized (parent) {
+                lazyParent = findLazyByInstance(parent);
+                if (!Lazy.isPreProcessed(lazyParent)) {
+                    getPreprocessQueue(parent, false).addAll(lazies);
+                    return lazies;
+                }
+                doPreProcessChildren(lazies, lazyParent);
+            }
+            findModule(lazyParent).attainInstances(lazies);
+            return lazies;
+        } catch (Exception e) {
+            throw doFailure(null, e);
+        }
+    }
+
     private Collection<Lazy> getPreprocessQueue(final Object parent, boolean readonly) {
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized (parent) {
@@ -387,6 +711,13 @@ public final class FuelInjector {
     void enqueueLazy(Object parent, Lazy lazy) {
         //noinspection SynchronizationOnLocalVariableOrMethodParameter -- I know what I'm doing
         synchronized (parent) {
+            // The parent may have been ignited and dequeued between the caller's look-up and now, nobody would ever dequeue us.
+            // Dequeue happens under this same lock after the parent is post-processed so checking here closes the gap.
+            Lazy lazyParent = findLazyByInstance(parent);
+            if (Lazy.isPostProcessed(lazyParent)) {
+                doPreProcessChild(lazy, lazyParent);
+                return;
+            }
             Collection<Lazy> queue = getPreprocessQueue(parent, false);
             queue.add(lazy);
         }
@@ -398,16 +729,15 @@ public final class FuelInjector {
      * @throws FuelScopeViolationException        -
      */
     void dequeuePreProcesses(@NonNull Lazy parent) throws FuelUnableToObtainContextException, FuelScopeViolationException {
-        //noinspection SynchronizationOnLocalVariableOrMethodParameter -- it's fine...
-        synchronized (parent) {
-            if (parent.getInstance() == null) {
-                throw new FuelInvalidParentException("ParentLazy has no instance but attempting to dequeue children. Parent=%s", parent);
-            }
-            Collection<Lazy> queue = getPreprocessQueue(parent.getInstance(), true);
+        Object instance = parent.getInstance();
+        if (instance == null) {
+            throw new FuelInvalidParentException("ParentLazy has no instance but attempting to dequeue children. Parent=%s", parent);
+        }
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as enqueueLazy
+        synchronized (instance) {
+            Collection<Lazy> queue = getPreprocessQueue(instance, true);
             if (queue.size() > 0) {
-                for (Lazy lazy : queue) {
-                    doPreProcessChild(lazy, parent);
-                }
+                doPreProcessChildren(queue, parent);
                 queue.clear();
             }
         }
@@ -441,26 +771,32 @@ public final class FuelInjector {
         if (isDebug()) {
             FLog.leaveBreadCrumb("pre-process parent %s, %s", parent, context);
         }
-        doPreProcessCommon(parent, context);
+        Class<?> leafType = doPreProcessCommon(parent, context);
         Scope contextScope = determineScope(parent.getContext().getClass());
-        parent.scope = determineScope(parent.getLeafType());
-        if (Scope.Object.equals(parent.scope)) { // Object scopes should inherit their parent scope
-            parent.scope = contextScope;
+        Scope scope = determineScope(leafType);
+        if (Scope.Object.equals(scope)) { // Object scopes should inherit their parent scope
+            scope = contextScope;
         }
-        validateScope(parent.scope, contextScope);
+        parent.setPreProcessed(leafType, scope, Scope.Custom.equals(scope) ? toCustomScope(leafType) : null);
+        validateScope(parent.getScope(), contextScope);
     }
 
-    void doPreProcessCommon(@NonNull Lazy lazy, Context context) {
+    /**
+     * Everything but the scope, the caller works that out and then marks the lazy preProcessed
+     *
+     * @return the leaf type, for the caller to mark the lazy preProcessed with
+     */
+    @NonNull Class<?> doPreProcessCommon(@NonNull Lazy lazy, Context context) {
         Context lazyContext = context;
-        lazy.setLeafType(findModule(lazy).toLeafType(lazy.type, lazy.getFlavor()));
+        Class<?> leafType = findModule(lazy).toLeafType(lazy.getType(), lazy.getFlavor());
 
-        // Override with App Context if App Singleton to be safe
-        if (isAppSingleton(lazy.getLeafType())) {
+        // Override with App Context if App Singleton to be safe, same for Scoped Singletons which outlive Activities
+        if (isAppSingleton(leafType) || isScopedSingleton(leafType)) {
             lazyContext = getApp();
         }
 
         lazy.setContext(lazyContext);
-        lazy.preProcessed = true;
+        return leafType;
     }
 
     /**
@@ -473,20 +809,47 @@ public final class FuelInjector {
      * @param parent - must be postProcessed and have instance/context
      */
     void doPreProcessChild(@NonNull Lazy child, Lazy parent) throws FuelUnableToObtainContextException, FuelScopeViolationException {
+        doPreProcessChild(child, parent, getContextRef(parent.getContext()));
+    }
+
+    /**
+     * {@link #doPreProcessChild(Lazy, Lazy)} for all of a parent's children, the parent's context is resolved once for the lot.
+     */
+    void doPreProcessChildren(@NonNull Collection<? extends Lazy> children, @NonNull Lazy parent) throws FuelUnableToObtainContextException, FuelScopeViolationException {
+        if (children.isEmpty()) {
+            return;
+        }
+        WeakReference<Context> contextRef = getContextRef(parent.getContext());
+        for (Lazy child : children) {
+            doPreProcessChild(child, parent, contextRef);
+        }
+    }
+
+    private void doPreProcessChild(@NonNull Lazy child, @NonNull Lazy parent, @NonNull WeakReference<Context> contextRef) {
         if (isDebug()) {
             FLog.leaveBreadCrumb("pre-process child %s, %s", child, parent);
         }
-        Context context = parent.getContext();
 
-        doPreProcessCommon(child, context);
-        child.scope = determineScope(child.getLeafType());
-        if (Scope.Object.equals(child.scope)) { // Object scopes should inherit their parent scope
-            child.scope = parent.scope;
+        // same as doPreProcessCommon but with the parent's context already resolved
+        Class<?> leafType = findModule(child).toLeafType(child.getType(), child.getFlavor());
+        if (isAppSingleton(leafType) || isScopedSingleton(leafType)) {
+            child.setContextRef(getAppContextRef()); // Override with App Context if App or Scoped Singleton to be safe
+        } else {
+            child.setContextRef(contextRef);
+        }
+
+        Scope scope = determineScope(leafType);
+        CustomScope customScope = Scope.Custom.equals(scope) ? toCustomScope(leafType) : null;
+        if (Scope.Object.equals(scope)) { // Object scopes should inherit their parent scope
+            scope = parent.getScope();
+            customScope = parent.getCustomScope();
         }
-        validateScope(parent.scope, child.scope);
+        child.setPreProcessed(leafType, scope, customScope);
+        validateScope(parent.getScope(), scope);
+        validateCustomScope(parent.getCustomScope(), customScope);
 
         if (child.isDebug()) {
-            FLog.leaveBreadCrumb("doPreProcessChild for %s, context ended up with %s", child, context.getClass().getSimpleName());
+            FLog.leaveBreadCrumb("doPreProcessChild for %s, context ended up with %s", child, child.getContext().getClass().getSimpleName());
         }
 
         if (isService(child.getLeafType())) {
@@ -494,6 +857,33 @@ public final class FuelInjector {
         }
     }
 
+    /**
+     * First get() of a {@link Lazy#attainDeferred(Object, Class)} -- everything attain would have done, now that it's needed.
+     *
+     * @throws FuelUnableToObtainContextException when the parent was never ignited
+     * @throws FuelScopeViolationException        -
+     */
+    void doPreProcessDeferred(@NonNull Lazy lazy) throws FuelUnableToObtainContextException, FuelScopeViolationException {
+        Object parent = lazy.getParent();
+        Lazy lazyParent = parent == null ? null : findLazyByInstance(parent);
+        if (!Lazy.isPreProcessed(lazyParent)) {
+            throw doFailure(lazy, new FuelUnableToObtainContextException("Never Ignited, deferred lazy requires its parent be ignited before get() " + lazy));
+        }
+        doPreProcessChild(lazy, lazyParent);
+    }
+
+    /**
+     * Debug only validation of a deferred lazy at attain, so scope violations surface where they're written.<br>
+     * Only possible once the parent is ignited, otherwise it waits for get() like any deferred lazy.
+     */
+    void validateDeferred(@NonNull Lazy lazy) throws FuelScopeViolationException {
+        Object parent = lazy.getParent();
+        Lazy lazyParent = parent == null ? null : findLazyByInstance(parent);
+        if (Lazy.isPreProcessed(lazyParent)) {
+            doPreProcessChild(lazy, lazyParent);
+        }
+    }
+
     Scope determineScope(Class leafType) {
         if (leafType != null) {
             // ordered by precedence
@@ -507,6 +897,8 @@ public final class FuelInjector {
                 return Scope.ViewRoot;
             } else if (isActivity(leafType)) {
                 return Scope.Activity;
+            } else if (isScopedSingleton(leafType)) {
+                return Scope.Custom;
             } else if (isAppSingleton(leafType)) {
                 return Scope.Application;
             } else if (isApplication(leafType)) {
@@ -530,6 +922,17 @@ public final class FuelInjector {
         }
     }
 
+    /**
+     * Can a access b ? Only matters when both are {@link Scope#Custom}, see {@link CustomScope#canAccess(CustomScope)}
+     *
+     * @throws FuelScopeViolationException -
+     */
+    void validateCustomScope(@Nullable CustomScope a, @Nullable CustomScope b) throws FuelScopeViolationException {
+        if (a != null && b != null && !a.canAccess(b)) {
+            throw new FuelScopeViolationException("Fuel Scope Violation: %s cannot access %s", a, b);
+        }
+    }
+
     /**
      * after we have an instance
      *
@@ -540,7 +943,7 @@ public final class FuelInjector {
             FLog.leaveBreadCrumb("post-process %s", lazy);
         }
         rememberLazyByInstance(lazy.getInstance(), lazy);
-        lazy.postProcessed = true; // before processing queue bcuz this lazy is done and its children should consider it done
+        lazy.setPostProcessed(); // before processing queue bcuz this lazy is done and its children should consider it done
         dequeuePreProcesses(lazy);
     }
 
@@ -552,7 +955,7 @@ public final class FuelInjector {
     final <T> T attain(Context context, Class<T> type, Integer flavor) {
         try {
             Lazy<T> lazy = Lazy.attain(context, type, flavor);
-            return findModule(lazy).attainInstance(CacheKey.attain(lazy), lazy, true);
+            return findModule(lazy).attainInstance(lazy.toCacheKey(), lazy, true);
         } catch (Exception e) {
             FLog.e("Unable to attain instance of %s", type);
             throw new IllegalStateException(e);
@@ -584,55 +987,179 @@ public final class FuelInjector {
         return id == getPid();
     }
 
+    /** null before ignite or when the root module has none */
+    final @Nullable ThreadPolicy getThreadPolicy() {
+        FuelModule rootModule = this.rootModule;
+        return rootModule == null ? null : rootModule.getThreadPolicy();
+    }
+
+
+    /**
+     * Take an immutable snapshot of the injection graph -- see {@link InjectionGraph}.<br>
+     * Injection on other threads is not held up while the snapshot is built, only references are copied under each lock
+     * and the formatting and size estimation is done after the locks are released.<br>
+     * <br>
+     * Safe to call from any thread.
+     *
+     * @param estimateShallowSizes true to estimate per-instance shallow sizes, see {@link ShallowSizeEstimator}
+     */
+    public @NonNull InjectionGraph snapshotInjectionGraph(boolean estimateShallowSizes) {
+        long now = System.currentTimeMillis();
+
+        // Scope->ScopeObject->Key->Instance Cache
+        List<InjectionGraph.ScopeNode> scopes = new ArrayList<>();
+        if (isInitialized()) {
+            Map<Scope, Map<Object, Map<CacheKey, Object>>> scopeCache = getRootModule().copyScopeCache();
+            for (Scope scope : Scope.values()) {
+                Map<Object, Map<CacheKey, Object>> scopeObjects = scopeCache.get(scope);
+                if (scopeObjects != null) {
+                    scopes.add(toScopeNode(scope, scopeObjects, estimateShallowSizes));
+                }
+            }
+        }
+
+        // QueueOwner->Lazies Pending Pre-process
+        List<InjectionGraph.PendingNode> pending = new ArrayList<>();
+        for (Object parent : copyKeys(preprocessQueue)) {
+            List<Lazy> lazies;
+            //noinspection SynchronizationOnLocalVariableOrMethodParameter -- same lock as enqueueLazy
+            synchronized (parent) {
+                lazies = new ArrayList<>(getPreprocessQueue(parent, true));
+            }
+            if (!lazies.isEmpty()) {
+                List<String> descriptions = new ArrayList<>(lazies.size());
+                for (Lazy lazy : lazies) {
+                    descriptions.add(String.valueOf(lazy));
+                }
+                pending.add(new InjectionGraph.PendingNode(parent, descriptions));
+            }
+        }
+
+        // ScopeObject->Instance->Lazy Lookup
+        List<InjectionGraph.LazyIndexNode> lazyIndex = new ArrayList<>();
+        for (Object scopeObject : copyKeys(lazyCache)) {
+            Map<Object, Lazy> instanceToLazy = lazyCache.get(scopeObject);
+            if (instanceToLazy == null) {
+                continue;
+            }
+            List<InjectionGraph.Node> instances = new ArrayList<>();
+            List<String> lazies = new ArrayList<>();
+            for (Map.Entry<Object, Lazy> entry : copyEntries(instanceToLazy)) {
+                instances.add(new InjectionGraph.Node(entry.getKey(),
+                        estimateShallowSizes ? ShallowSizeEstimator.estimate(entry.getKey()) : InjectionGraph.SIZE_UNKNOWN));
+                lazies.add(String.valueOf(entry.getValue()));
+            }
+            lazyIndex.add(new InjectionGraph.LazyIndexNode(scopeObject, instances, lazies));
+        }
+
+        return new InjectionGraph(now, scopes, pending, lazyIndex);
+    }
 
+    private InjectionGraph.ScopeNode toScopeNode(Scope scope, Map<Object, Map<CacheKey, Object>> scopeObjects, boolean estimateShallowSizes) {
+        List<InjectionGraph.ScopeObjectNode> nodes = new ArrayList<>(scopeObjects.size());
+        int scopeCount = 0;
+        long scopeBytes = estimateShallowSizes ? 0 : InjectionGraph.SIZE_UNKNOWN;
+        for (Map.Entry<Object, Map<CacheKey, Object>> scopeObjectEntry : scopeObjects.entrySet()) {
+            List<InjectionGraph.InstanceNode> instances = new ArrayList<>(scopeObjectEntry.getValue().size());
+            long instanceBytes = estimateShallowSizes ? 0 : InjectionGraph.SIZE_UNKNOWN;
+            for (Map.Entry<CacheKey, Object> entry : scopeObjectEntry.getValue().entrySet()) {
+                long bytes = InjectionGraph.SIZE_UNKNOWN;
+                if (estimateShallowSizes) {
+                    bytes = ShallowSizeEstimator.estimate(entry.getValue());
+                    instanceBytes += bytes;
+                }
+                instances.add(new InjectionGraph.InstanceNode(entry.getKey(), entry.getValue(), bytes));
+            }
+            long scopeObjectBytes = estimateShallowSizes ? ShallowSizeEstimator.estimate(scopeObjectEntry.getKey()) : InjectionGraph.SIZE_UNKNOWN;
+            nodes.add(new InjectionGraph.ScopeObjectNode(scopeObjectEntry.getKey(), scopeObjectBytes, instances, instanceBytes));
+            scopeCount += instances.size();
+            if (estimateShallowSizes) {
+                scopeBytes += instanceBytes;
+            }
+        }
+
+        // biggest first, that's who we're looking for
+        Collections.sort(nodes, new Comparator<InjectionGraph.ScopeObjectNode>() {
+            @Override public int compare(InjectionGraph.ScopeObjectNode a, InjectionGraph.ScopeObjectNode b) {
+                if (a.getInstancesShallowBytes() != b.getInstancesShallowBytes()) {
+                    return a.getInstancesShallowBytes() < b.getInstancesShallowBytes() ? 1 : -1;
+                }
+                return b.getInstanceCount() - a.getInstanceCount();
+            }
+        });
+        return new InjectionGraph.ScopeNode(scope, nodes, scopeCount, scopeBytes);
+    }
+
+    // maps are synchronized wrappers, iterating them means holding their mutex -- only references are copied so it's brief
+    private static <K> List<K> copyKeys(Map<K, ?> map) {
+        List<K> out = new ArrayList<>();
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (map) {
+            for (K key : map.keySet()) {
+                if (key != null) {
+                    out.add(key);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static <K, V> List<Map.Entry<K, V>> copyEntries(Map<K, V> map) {
+        List<Map.Entry<K, V>> out = new ArrayList<>();
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (map) {
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                if (entry.getKey() != null) {
+                    out.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Logs {@link #snapshotInjectionGraph(boolean)} via {@link FLog#dSimple(String, Object...)} -- only visible in debug.
+     */
     public void debugInjectionGraph() {
-        /*
         try {
+            InjectionGraph graph = snapshotInjectionGraph(true);
+
             FLog.dSimple("####");
             FLog.dSimple("####");
             FLog.dSimple("#### Scope->ScopeObject->Key->Instance Cache");
-            Map<Scope, WeakHashMap<Object, Map<CacheKey, Object>>> scopeCache = injector.scopeCache;
-            for (Scope scope : scopeCache.keySet()) {
-                FLog.dSimple("Scope = %s", scope);
-                WeakHashMap<Object, Map<CacheKey, Object>> scopeToKeyToObject = scopeCache.get(scope);
-                for (Object scopeObject : scopeToKeyToObject.keySet()) {
-                    FLog.dSimple(" - ScopeObject = %s", scopeObject);
-                    Map<CacheKey, Object> keyToObject = scopeToKeyToObject.get(scopeObject);
-                    for (CacheKey key : keyToObject.keySet()) {
-                        FLog.dSimple(" - - Key = %s", key);
-                        Object obj = keyToObject.get(key);
-                        FLog.dSimple(" - - - Instance = %s", obj);
+            for (InjectionGraph.ScopeNode scope : graph.getScopes()) {
+                FLog.dSimple("Scope = %s, instances=%s, ~%s bytes", scope.getScope(), scope.getInstanceCount(), scope.getShallowBytes());
+                for (InjectionGraph.ScopeObjectNode scopeObject : scope.getScopeObjects()) {
+                    FLog.dSimple(" - ScopeObject = %s, instances=%s, ~%s bytes",
+                            scopeObject, scopeObject.getInstanceCount(), scopeObject.getInstancesShallowBytes());
+                    for (InjectionGraph.InstanceNode instance : scopeObject.getInstances()) {
+                        FLog.dSimple(" - - Key = %s", instance.getKey());
+                        FLog.dSimple(" - - - Instance = %s, ~%s bytes", instance, instance.getShallowBytes());
                     }
                 }
             }
 
             FLog.dSimple("####");
-            FLog.dSimple("#### ScopeObject->Parent->LazyInstance Lookup");
-            Map<Object, WeakHashMap<Object, Lazy>> lazyCache = injector.lazyCache;
-            for (Object scopeObject : lazyCache.keySet()) {
+            FLog.dSimple("#### ScopeObject->Instance->LazyInstance Lookup");
+            for (InjectionGraph.LazyIndexNode scopeObject : graph.getLazyIndex()) {
                 FLog.dSimple("ScopeObject = %s", scopeObject);
-                WeakHashMap<Object, Lazy> parentToLazy = lazyCache.get(scopeObject);
-                for (Object parent : parentToLazy.keySet()) {
-                    FLog.dSimple(" - Parent = %s", parent);
-                    Lazy lazy = parentToLazy.get(parent);
-                    FLog.dSimple(" - - LazyInstance = %s", lazy);
+                for (int i = 0; i < scopeObject.getInstances().size(); i++) {
+                    FLog.dSimple(" - Instance = %s", scopeObject.getInstances().get(i));
+                    FLog.dSimple(" - - LazyInstance = %s", scopeObject.getLazies().get(i));
                 }
             }
 
             FLog.dSimple("####");
             FLog.dSimple("#### QueueOwner->Lazies Pending Pre-process");
-            WeakHashMap<Object, Queue<Lazy>> preprocessQueue = injector.preprocessQueue;
-            for (Object parent : preprocessQueue.keySet()) {
+            for (InjectionGraph.PendingNode parent : graph.getPending()) {
                 FLog.dSimple("Owner = %s", parent);
-                Queue<Lazy> lazies = preprocessQueue.get(parent);
-                for (Lazy lazy : lazies) {
+                for (String lazy : parent.getLazies()) {
                     FLog.dSimple(" - Lazy = %s", lazy);
                 }
             }
         } catch (Exception e) {
             FLog.e(e, "Failure while logging injection graph");
         }
-         */
     }
 
 }
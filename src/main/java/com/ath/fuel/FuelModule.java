@@ -17,23 +17,28 @@ import android.widget.ArrayAdapter;
 import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.collection.SparseArrayCompat;
 
 import com.ath.fuel.err.FuelInjectionBindException;
 import com.ath.fuel.err.FuelInjectionException;
+import com.ath.fuel.err.FuelScopeViolationException;
 import com.ath.fuel.err.FuelUnableToObtainInstanceException;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 public abstract class FuelModule {
 
@@ -64,22 +69,32 @@ public abstract class FuelModule {
         void configure(@NonNull FuelConfigurator module);
     }
 
-    // Scope -> ScopeObject -> CacheKey -> instance
-    // - Scope is Application, Activity, Fragment, etc
-    // - ScopeObject would be the context, or the fragment, paired to the scope
-    // - CacheKey describes the instance we're looking for
-    // - instance the hidden treasure
-    private static final ReentrantReadWriteLock cacheLock = new ReentrantReadWriteLock();
-    private final Map<Scope, WeakHashMap<Object, Map<CacheKey, Object>>> scopeCache = new HashMap<>();
-    private static final SparseArrayCompat<Class> leafTypeCache = new SparseArrayCompat<>();
-
-    private final @NonNull Map<Class<?>, Class<?>> classToClassMap = new HashMap<>();
-    private final @NonNull Map<Class<?>, Object> classToObjectMap = new HashMap<>();
-    private final @NonNull Map<Class<?>, FuelProvider> classToProviderMap = new HashMap<>();
-    private final @NonNull Set<Class<?>> classMaps = new HashSet<>();
-    private final @NonNull List<FuelSubmodule> submodules = new ArrayList<>();
+    private final ScopeCache scopeCache = new ScopeCache();
+    private final ActivityScopeRetainer activityScopeRetainer = new ActivityScopeRetainer();
+    private static final Map<Class<?>, ConstructorPlan> constructorPlans = new ConcurrentHashMap<>(); // leafType -> how to construct it
+
+    // Readers take whatever generation is published, never a lock, see Bindings
+    private volatile @NonNull Bindings bindings = Bindings.EMPTY;
+    private final @NonNull Object publishLock = new Object();
+    private final @NonNull ThreadLocal<Bindings.Builder> pendingBindings = new ThreadLocal<>(); // the configure running on this thread
+    private final @NonNull Map<Class<?>, CustomScope> customScopes = new ConcurrentHashMap<>();
+    private final @NonNull List<FuelSubmodule> submodules = Collections.synchronizedList(new ArrayList<FuelSubmodule>());
+    private final @NonNull Map<Class<?>, LazySubmodule> lazySubmodules = new ConcurrentHashMap<>(); // owned key -> not yet configured
     private final @NonNull Application app;
     private FuelConfigurator fuelConfigurator = null;
+    private volatile @Nullable ScopeLeakWatcher scopeLeakWatcher = null;
+    private volatile @Nullable StartupProfiler startupProfiler = null;
+    private volatile @Nullable ResolutionSnapshot resolutionSnapshot = null;
+    private volatile @Nullable ThreadPolicy threadPolicy = null;
+    private final @NonNull Object threadPolicyLock = new Object(); // held while swapping threadPolicy, attains only read it
+    private volatile boolean retainActivitySingletons = false;
+    private volatile boolean memoizeLaziesStrongly = false;
+    private volatile @NonNull BackgroundInitializer backgroundInitializer = new BackgroundInitializer();
+    private volatile @Nullable ExecutorService argPool = null; // constructs constructor arguments in parallel when set
+    private volatile int parallelConstructorArgs = 0;
+    private volatile @Nullable IdleScheduler idleScheduler = null;
+    private final DeferredOnFueled deferredOnFueled = new DeferredOnFueled();
+    private final Prefetcher prefetcher = new Prefetcher();
 
     /* package private */
     Application.ActivityLifecycleCallbacks localLifecycleCallbacks;
@@ -89,6 +104,7 @@ public abstract class FuelModule {
 
         localLifecycleCallbacks = new Application.ActivityLifecycleCallbacks() {
             @Override public void onActivityCreated(@NonNull Activity activity, Bundle savedInstanceState) {
+                activityScopeRetainer.onActivityCreated(activity, savedInstanceState, scopeCache); // before anything is attained
                 FuelModule.this.onActivityCreated(activity, savedInstanceState);
             }
 
@@ -97,6 +113,7 @@ public abstract class FuelModule {
             }
 
             @Override public void onActivityResumed(@NonNull Activity activity) {
+                activityScopeRetainer.onActivityResumed(activity);
                 FuelModule.this.onActivityResumed(activity);
             }
 
@@ -109,11 +126,21 @@ public abstract class FuelModule {
             }
 
             @Override public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+                if (retainActivitySingletons) {
+                    activityScopeRetainer.onActivitySaveInstanceState(activity, outState);
+                }
                 FuelModule.this.onActivitySaveInstanceState(activity, outState);
             }
 
             @Override public void onActivityDestroyed(@NonNull Activity activity) {
+                activityScopeRetainer.onActivityDestroyed(activity, scopeCache);
+                prefetcher.cancel(activity);
+                FuelInjector.get().releaseMemoizedLazies(activity);
                 FuelModule.this.onActivityDestroyed(activity);
+                ScopeLeakWatcher watcher = scopeLeakWatcher;
+                if (watcher != null) {
+                    watcher.watch(activity, Scope.Activity);
+                }
             }
         };
         app.registerActivityLifecycleCallbacks(localLifecycleCallbacks);
@@ -155,6 +182,229 @@ public abstract class FuelModule {
     protected void onActivityDestroyed(Activity activity) {
     }
 
+    /**
+     * Opt-in to scope leak detection, see {@link ScopeLeakWatcher}.<br>
+     * Destroyed Activities and ViewRoots detached after this call are watched.
+     *
+     * @param watcher null to stop watching new scope objects
+     */
+    public final void setScopeLeakWatcher(@Nullable ScopeLeakWatcher watcher) {
+        this.scopeLeakWatcher = watcher;
+    }
+
+    public final @Nullable ScopeLeakWatcher getScopeLeakWatcher() {
+        return scopeLeakWatcher;
+    }
+
+    /**
+     * Opt-in to profile guided warmup, see {@link StartupProfiler}.<br>
+     * Must be set before {@link FuelInjector#ignite(Application, FuelModule)}, which starts it.
+     *
+     * @param profiler null to neither record nor warm up
+     */
+    public final void setStartupProfiler(@Nullable StartupProfiler profiler) {
+        this.startupProfiler = profiler;
+    }
+
+    public final @Nullable StartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
+    /**
+     * Opt-in to a persisted resolution table, see {@link ResolutionSnapshot}.<br>
+     * Must be set before {@link FuelInjector#ignite(Application, FuelModule)}, which loads it.
+     *
+     * @param snapshot null to neither load nor write one
+     */
+    public final void setResolutionSnapshot(@Nullable ResolutionSnapshot snapshot) {
+        this.resolutionSnapshot = snapshot;
+    }
+
+    public final @Nullable ResolutionSnapshot getResolutionSnapshot() {
+        return resolutionSnapshot;
+    }
+
+    /** Load the {@link ResolutionSnapshot} of the bindings just configured, if there is one */
+    final void startResolutionSnapshot() {
+        ResolutionSnapshot snapshot = resolutionSnapshot;
+        if (snapshot != null) {
+            snapshot.start(describeBindings());
+        }
+    }
+
+    /** Every binding and lazily configured key, one line each, what a {@link ResolutionSnapshot} is valid for */
+    final @NonNull List<String> describeBindings() {
+        Bindings bindings = this.bindings;
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Class<?>, Class<?>> entry : bindings.classToClassMap.entrySet()) {
+            lines.add("class " + entry.getKey().getName() + " " + entry.getValue().getName());
+        }
+        for (Map.Entry<Class<?>, Object> entry : bindings.classToObjectMap.entrySet()) {
+            lines.add("object " + entry.getKey().getName() + " " + entry.getValue().getClass().getName());
+        }
+        for (Map.Entry<Class<?>, FuelProvider> entry : bindings.classToProviderMap.entrySet()) {
+            lines.add("provider " + entry.getKey().getName() + " " + entry.getValue().getClass().getName());
+        }
+        for (Map.Entry<Class<?>, LazySubmodule> entry : lazySubmodules.entrySet()) {
+            lines.add("lazy " + entry.getKey().getName() + " " + entry.getValue().submodule.getClass().getName());
+        }
+        return lines;
+    }
+
+    /**
+     * Opt-in to policing off main thread attains, see {@link ThreadPolicy}.<br>
+     * Takes effect for Lazies attained after this call.
+     *
+     * @param policy null to not check at all
+     */
+    public final void setThreadPolicy(@Nullable ThreadPolicy policy) {
+        synchronized (threadPolicyLock) {
+            ThreadPolicy replaced = this.threadPolicy;
+            if (replaced == policy) {
+                return;
+            }
+            if (policy != null) {
+                policy.install();
+            }
+            this.threadPolicy = policy;
+            if (replaced != null) {
+                replaced.uninstall(); // or its reporting thread lives on with nothing left to report to
+            }
+        }
+    }
+
+    public final @Nullable ThreadPolicy getThreadPolicy() {
+        return threadPolicy;
+    }
+
+    /**
+     * Opt-in to keeping ActivitySingletons across configuration changes.<br>
+     * The ActivitySingletons of an Activity destroyed for a configuration change are handed to the Activity that replaces it
+     * rather than constructed again, an Activity finishing for good releases them as always.<br>
+     * <br>
+     * NOTE:<br>
+     * Like a ViewModel, a retained ActivitySingleton outlives the Activity it was created for so it must not hold on to it,
+     * nor to its Views -- a {@link ScopeLeakWatcher} reports the Activity of one that does. Its own Lazies that are not yet
+     * resolved still resolve against the old Activity, get() the ones it needs per Activity before it's retained.
+     *
+     * @param retain takes effect for the next configuration change
+     */
+    public final void setRetainActivitySingletons(boolean retain) {
+        this.retainActivitySingletons = retain;
+    }
+
+    public final boolean isRetainActivitySingletons() {
+        return retainActivitySingletons;
+    }
+
+    /**
+     * Opt-in to holding {@link Lazy#attainMemoized(Object, Class)} Lazies strongly, so the same Lazy and instance keep coming
+     * back across GCs even when nothing else references them.<br>
+     * NOTE: a memoized instance that references its parent then keeps the parent, so its memo, alive. Memos resolved against an
+     * Activity are dropped when it's destroyed, for any other parent the memo and instance stay for the life of the process.
+     *
+     * @param strongly takes effect for Lazies memoized after this call
+     */
+    public final void setMemoizeLaziesStrongly(boolean strongly) {
+        this.memoizeLaziesStrongly = strongly;
+    }
+
+    public final boolean isMemoizeLaziesStrongly() {
+        return memoizeLaziesStrongly;
+    }
+
+    /**
+     * Replace the default {@link BackgroundInitializer}, ex: for more threads, another timeout or to listen for main thread waits.<br>
+     * Must be set before {@link FuelInjector#ignite(Application, FuelModule)}, which starts the bound BackgroundInit AppSingletons.
+     */
+    public final void setBackgroundInitializer(@NonNull BackgroundInitializer initializer) {
+        this.backgroundInitializer = initializer;
+    }
+
+    public final @NonNull BackgroundInitializer getBackgroundInitializer() {
+        return backgroundInitializer;
+    }
+
+    /**
+     * Opt-in to constructing the arguments of reflectively constructed types in parallel.<br>
+     * When a constructor takes several arguments that are not cached yet, ex: a singleton with a handful of heavy collaborators,
+     * they're constructed at the same time on a pool of the given size and the calling thread, then the constructor is called.
+     * A dependency shared by several arguments is still built once.<br>
+     * <br>
+     * NOTE:<br>
+     * The arguments' constructors then run on background threads, like a {@link BackgroundInit} their constructors must not
+     * require the main thread.
+     *
+     * @param threads the size of the pool, 0 to construct arguments one after another on the calling thread
+     */
+    public final void setParallelConstructorArgs(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads must not be negative but was " + threads);
+        }
+        ExecutorService old = argPool;
+        argPool = threads == 0 ? null : FuelExecutors.newDaemonPool("FuelConstructorArgs", threads);
+        parallelConstructorArgs = threads;
+        if (old != null) {
+            old.shutdown(); // what it's already running finishes, what it rejects from here on the callers run themselves
+        }
+    }
+
+    public final int getParallelConstructorArgs() {
+        return parallelConstructorArgs;
+    }
+
+    /**
+     * Opt-in to deferring the onFueled of {@link DeferOnFueled} types until the given scheduler finds the time, ex: a
+     * {@link MainThreadIdleScheduler} takes them out of the frames an inflation lands in.<br>
+     * Deferred calls run in batches, in the order they were deferred, which puts dependencies first. The onFueled of a type
+     * that is not deferred still runs right away, after the deferred onFueled of its constructor arguments when it's on the
+     * scheduler's thread. Anywhere else, ex: a {@link BackgroundInit} thread, it is queued behind them.<br>
+     * The same scheduler drains the lazies marked with {@link Lazy#prefetch(int)}.
+     *
+     * @param scheduler null to run every onFueled right after injection
+     */
+    public final void setIdleScheduler(@Nullable IdleScheduler scheduler) {
+        this.idleScheduler = scheduler;
+    }
+
+    public final @Nullable IdleScheduler getIdleScheduler() {
+        return idleScheduler;
+    }
+
+    /**
+     * Queue the given lazy to be constructed when the {@link IdleScheduler} finds the time, see {@link Lazy#prefetch(int)}.<br>
+     * It's queued against its scope object, or its context or parent when it's not cached or not pre-processed yet.
+     */
+    final void prefetch(@NonNull Lazy<?> lazy, int priority) {
+        IdleScheduler scheduler = idleScheduler;
+        if (scheduler == null) {
+            return;
+        }
+        Object scopeObject;
+        if (Lazy.isPreProcessed(lazy) && lazy.getContextIfPresent() != null) {
+            scopeObject = lazy.toObjectScope();
+            if (scopeObject == null) {
+                scopeObject = lazy.getContextIfPresent();
+            }
+        } else {
+            scopeObject = lazy.getParent(); // ignited or injected before the idle, or dropped then
+        }
+        if (scopeObject != null) {
+            prefetcher.prefetch(lazy, priority, scopeObject, scheduler);
+        }
+    }
+
+    /** The Application scope has begun, start constructing the bound {@link BackgroundInit} AppSingletons */
+    final void startBackgroundInit(@NonNull Application app) {
+        Set<Class<?>> started = new HashSet<>();
+        for (Class<?> type : bindings.classMaps) { // every key bound, whatever it's bound to
+            Class<?> leafType = toLeafType(type, null);
+            if (FuelInjector.get().isBackgroundInit(leafType) && FuelInjector.get().isAppSingleton(leafType) && started.add(leafType)) {
+                backgroundInitializer.start(app, type, null);
+            }
+        }
+    }
+
     /**
      * Called whenever a new instance is obtained by Fuel.<br>
      * For Singletons it should only be once per scope.<br>
@@ -185,6 +435,7 @@ public abstract class FuelModule {
      * Or override and throw an error to fully unsupport reflective attain.<br>
      * Note individual use via bindReflectively() will still be enabled.
      */
+    @SuppressWarnings("unchecked")
     protected @Nullable <T> T onInstanceUnattainable(@NonNull Lazy<T> lazy) {
         FLog.w("Fuel is forced to use reflection to obtain: '"
                 + lazy.getLeafType()
@@ -200,7 +451,7 @@ public abstract class FuelModule {
             // pre-conditions and exemptions
             if (lazy == null || lazy.getInstance() == null) {
                 return;
-            } else if (lazy.onFueledCalled) {
+            } else if (lazy.isOnFueledCalled()) {
                 return;
             } else if (!(lazy.getInstance() instanceof OnFueled)) {
                 return;
@@ -212,7 +463,18 @@ public abstract class FuelModule {
                 // continue
             }
 
-            lazy.onFueledCalled = true;
+            IdleScheduler scheduler = idleScheduler;
+            if (scheduler != null && FuelInjector.get().isDeferOnFueled(lazy.getInstance().getClass())) {
+                deferredOnFueled.defer(lazy, scheduler);
+                return;
+            }
+            if (!deferredOnFueled.runDependencies(lazy, scheduler)) {
+                return; // queued behind the deferred arguments it was constructed with, this is not the scheduler's thread
+            }
+
+            if (!lazy.setOnFueledCalled()) { // ignite and get() may race here, onFueled exactly once
+                return;
+            }
             ((OnFueled) lazy.getInstance()).onFueled();
         } catch (Exception e) {
             FLog.e(e);
@@ -339,20 +601,31 @@ public abstract class FuelModule {
         bind(NotificationManager.class, getApplication().getSystemService(Context.NOTIFICATION_SERVICE));
     }
 
+    /** {@link #configure(Application)} publishing its bindings once at the end rather than once per bind */
+    final void configureBindings(@NonNull final Application app) {
+        inBindingBatch(new Runnable() {
+            @Override public void run() {
+                configure(app);
+            }
+        });
+    }
+
     public void printBindings() {
+        Bindings bindings = this.bindings;
+
         // FLog.d( "C2O Mapping: " );
-        for (Class c : classToObjectMap.keySet()) {
-            FLog.d(" -- C2O Mapping: %s -> %s", c, classToObjectMap.get(c));
+        for (Class c : bindings.classToObjectMap.keySet()) {
+            FLog.d(" -- C2O Mapping: %s -> %s", c, bindings.classToObjectMap.get(c));
         }
 
         // FLog.d( "C2P Mapping: " );
-        for (Class c : classToProviderMap.keySet()) {
-            FLog.d(" -- C2P Mapping: %s -> %s", c, classToProviderMap.get(c) == null ? "Null" : "Provider");
+        for (Class c : bindings.classToProviderMap.keySet()) {
+            FLog.d(" -- C2P Mapping: %s -> %s", c, bindings.classToProviderMap.get(c) == null ? "Null" : "Provider");
         }
 
         // FLog.d( "C2C Mapping: " );
-        for (Class c : classToClassMap.keySet()) {
-            FLog.d(" -- C2C Mapping: %s -> %s", c, classToClassMap.get(c));
+        for (Class c : bindings.classToClassMap.keySet()) {
+            FLog.d(" -- C2C Mapping: %s -> %s", c, bindings.classToClassMap.get(c));
         }
     }
 
@@ -388,8 +661,12 @@ public abstract class FuelModule {
                 throw new FuelInjectionBindException("bind failure %s is not derived from %s", to, from);
             }
         }
-        classToClassMap.put(from, to);
-        bindCheckForDupes(from);
+        Bindings.Builder builder = beginBind();
+        if (to != null) { // a null binding is no binding
+            builder.classToClassMap.put(from, to);
+        }
+        bindCheckForDupes(builder, from);
+        endBind(builder);
     }
 
     /**
@@ -414,9 +691,12 @@ public abstract class FuelModule {
                 throw new FuelInjectionBindException("bind failure %s is not derived from %s", to.getClass(), from);
             }
         }
-        classToObjectMap.put(from, to);
-        // classToObjectMap.put(to.getClass(), to);
-        bindCheckForDupes(from);
+        Bindings.Builder builder = beginBind();
+        if (to != null) { // ex: getSystemService of a service the device doesn't have
+            builder.classToObjectMap.put(from, to);
+        }
+        bindCheckForDupes(builder, from);
+        endBind(builder);
     }
 
     /**
@@ -435,35 +715,343 @@ public abstract class FuelModule {
                 throw new FuelInjectionBindException("bind failure baseType cannot be null");
             }
         }
-        classToProviderMap.put(from, to);
-        bindCheckForDupes(from);
+        Bindings.Builder builder = beginBind();
+        if (to != null) {
+            builder.classToProviderMap.put(from, to);
+        }
+        bindCheckForDupes(builder, from);
+        endBind(builder);
     }
 
     protected void bindReflectively(Class from) {
-        classToProviderMap.put(from, REFLECTIVE_PROVIDER);
-        bindCheckForDupes(from);
+        Bindings.Builder builder = beginBind();
+        builder.classToProviderMap.put(from, REFLECTIVE_PROVIDER);
+        bindCheckForDupes(builder, from);
+        endBind(builder);
     }
 
-    private void bindCheckForDupes(Class from) {
-        FLog.d("Hi");
-        if (classMaps.contains(from)) {
+    private void bindCheckForDupes(@NonNull Bindings.Builder builder, Class from) {
+        if (!lazySubmodules.isEmpty() && isClaimedByLazySubmodule(from)) {
+            if (FuelInjector.get().isDebug()) {
+                throw new FuelInjectionBindException("bind failure %s is claimed by a lazily configured submodule", from);
+            }
             onDuplicateBindingFound(from);
         }
-        classMaps.add(from);
+        if (!builder.classMaps.add(from) || bindings.classMaps.contains(from)) {
+            onDuplicateBindingFound(from);
+        }
+    }
+
+    /** The configure in progress on this thread, or a batch of one for a bind made outside of any */
+    private @NonNull Bindings.Builder beginBind() {
+        Bindings.Builder builder = pendingBindings.get();
+        return builder != null ? builder : new Bindings.Builder();
+    }
+
+    private void endBind(@NonNull Bindings.Builder builder) {
+        if (builder != pendingBindings.get()) {
+            publishBindings(builder, false);
+        }
+    }
+
+    /**
+     * Run a configure with every bind it makes published as one new generation at the end, so configuring N keys copies
+     * the maps once rather than N times and no reader ever sees half a submodule.<br>
+     * Nested configures (a submodule's addModule within configure) join the outer batch.
+     */
+    private void inBindingBatch(@NonNull Runnable configure) {
+        inBindingBatch(configure, false);
+    }
+
+    /** @param lazySubmodule a lazy submodule's configure, whose bindings a {@link ResolutionSnapshot} already accounts for */
+    private void inBindingBatch(@NonNull Runnable configure, boolean lazySubmodule) {
+        if (pendingBindings.get() != null) {
+            configure.run();
+            return;
+        }
+        Bindings.Builder builder = new Bindings.Builder();
+        pendingBindings.set(builder);
+        try {
+            configure.run();
+        } finally {
+            pendingBindings.remove();
+            publishBindings(builder, lazySubmodule); // even on failure, like binding straight into the maps would have
+        }
+    }
+
+    private void publishBindings(@NonNull Bindings.Builder builder, boolean lazySubmodule) {
+        synchronized (publishLock) { // only against other writers, so no batch is lost to a racing one
+            bindings = bindings.plus(builder);
+        }
+        ResolutionSnapshot snapshot = resolutionSnapshot;
+        if (snapshot != null && !lazySubmodule) {
+            snapshot.onBindingsChanged(); // a no-op until it's started, the bindings at ignite are what it was taken of
+        }
     }
 
     protected void onDuplicateBindingFound(Class from) {
         FLog.w("WARN: " + from.getCanonicalName() + "has already been mapped");
     }
 
-    protected void addModule(@NonNull FuelSubmodule submodule) {
+    /**
+     * Declare a {@link CustomScope} directly under Application, see {@link FuelInjector#beginScope(CustomScope)}.
+     *
+     * @param key identifies the scope, {@link ScopedSingleton}s name it
+     */
+    protected final @NonNull CustomScope declareScope(@NonNull Class<?> key) {
+        return declareScope(key, null);
+    }
+
+    /**
+     * Declare a {@link CustomScope} nested under another, it can only begin while its parent is active and ends with it.
+     *
+     * @param key    identifies the scope, {@link ScopedSingleton}s name it
+     * @param parent null for directly under Application
+     */
+    protected final @NonNull CustomScope declareScope(@NonNull Class<?> key, @Nullable CustomScope parent) {
+        if (customScopes.containsKey(key)) {
+            throw new FuelInjectionBindException("declareScope failure %s has already been declared", key);
+        }
+        if (parent != null && customScopes.get(parent.getKey()) != parent) {
+            throw new FuelInjectionBindException("declareScope failure parent %s was not declared by this module", parent);
+        }
+        CustomScope scope = new CustomScope(key, parent);
+        customScopes.put(key, scope);
+        return scope;
+    }
+
+    /**
+     * @return the scope declared with the given key, null when there is none
+     */
+    final @Nullable CustomScope getCustomScope(@NonNull Class<?> key) {
+        return customScopes.get(key);
+    }
+
+    /**
+     * @return how many instances were released
+     */
+    final int releaseScopeObject(@NonNull Scope cacheScope, @NonNull Object scopeObject) {
+        prefetcher.cancel(scopeObject);
+        return scopeCache.remove(cacheScope, scopeObject);
+    }
+
+    protected void addModule(@NonNull final FuelSubmodule submodule) {
         if (fuelConfigurator == null) {
             fuelConfigurator = new FuelConfigurator(this);
         }
-        submodule.configure(fuelConfigurator);
+        inBindingBatch(new Runnable() {
+            @Override public void run() {
+                submodule.configure(fuelConfigurator);
+            }
+        });
         submodules.add(submodule);
     }
 
+    /**
+     * Add a submodule that is only configured the first time one of the given keys is resolved, so a feature that is never
+     * opened costs nothing at startup.<br>
+     * Its bindings land in this module's maps like any submodule's, resolution after that is as fast as if it were configured up front.<br>
+     * <br>
+     * NOTE:<br>
+     * The keys must cover everything it binds, intermediate types of a chain included, nothing else would trigger it.
+     * In {@link FuelInjector#isDebug()} binding anything else fails.<br>
+     * The keys must not be bound by anyone else, or which binding wins would depend on what is resolved first.
+     * In {@link FuelInjector#isDebug()} a key that is already bound, or claimed by another lazy submodule, fails here.
+     *
+     * @param keys what it binds, none means configure it now like {@link #addModule(FuelSubmodule)}
+     */
+    protected void addModule(@NonNull FuelSubmodule submodule, @NonNull Class<?>... keys) {
+        if (keys.length == 0) {
+            addModule(submodule);
+            return;
+        }
+        for (Class<?> key : keys) {
+            if (isBound(key) || lazySubmodules.containsKey(key)) {
+                if (FuelInjector.get().isDebug()) {
+                    throw new FuelInjectionBindException("addModule failure %s is already bound, a lazily configured submodule can't claim it", key);
+                }
+                onDuplicateBindingFound(key);
+            }
+        }
+        LazySubmodule lazySubmodule = new LazySubmodule(submodule, keys);
+        for (Class<?> key : keys) {
+            lazySubmodules.put(key, lazySubmodule);
+        }
+    }
+
+    /** Bound by a published configure or by the one in progress on this thread */
+    private boolean isBound(@NonNull Class<?> key) {
+        Bindings.Builder builder = pendingBindings.get();
+        return bindings.classMaps.contains(key) || (builder != null && builder.classMaps.contains(key));
+    }
+
+    /** Claimed by a lazy submodule other than the one configuring on this thread */
+    private boolean isClaimedByLazySubmodule(@NonNull Class<?> key) {
+        LazySubmodule owner = lazySubmodules.get(key);
+        if (owner == null) {
+            return false;
+        }
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (owner) {
+            return owner.configuring != Thread.currentThread();
+        }
+    }
+
+    /**
+     * Configure the lazy submodule owning the given key, if there is one still waiting, before the caller takes any resolution lock.<br>
+     * A key first met while resolving something else, a constructor argument say, is configured from {@link #getType(Class, Integer)}.
+     */
+    final void configureOwnerOf(@NonNull Class<?> key) {
+        if (!lazySubmodules.isEmpty()) {
+            configureOwner(key);
+        }
+    }
+
+    /**
+     * Configure the lazy submodule owning the given key, if there is one still waiting.<br>
+     * The configure runs without holding the owner's lock, racing resolutions of its keys wait for it and the thread running it
+     * resolves against what was bound before, its bindings are published when configure returns.
+     */
+    private void configureOwner(@NonNull Class<?> key) {
+        final LazySubmodule owner = lazySubmodules.get(key);
+        if (owner == null) {
+            return;
+        }
+        Thread current = Thread.currentThread();
+        boolean interrupted = false;
+        boolean claimed = false;
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (owner) {
+            try {
+                while (!owner.configured && owner.configuring != null) {
+                    if (owner.configuring == current) {
+                        if (FuelInjector.get().isDebug()) {
+                            FLog.w("%s resolved from its own submodule's configure, it gets what was bound before", key);
+                        }
+                        return;
+                    }
+                    try {
+                        owner.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true; // not without its bindings, restored below
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    current.interrupt();
+                }
+            }
+            if (!owner.configured) {
+                owner.configuring = current; // claimed before configure runs, so a re-entry doesn't configure again
+                claimed = true;
+            }
+        }
+        if (claimed) {
+            boolean configured = false;
+            try {
+                final FuelConfigurator configurator = new FuelConfigurator(this, owner.keys);
+                inBindingBatch(new Runnable() {
+                    @Override public void run() {
+                        owner.submodule.configure(configurator);
+                    }
+                }, true);
+                submodules.add(owner.submodule);
+                configured = true;
+                for (Class<?> ownedKey : owner.keys) {
+                    lazySubmodules.remove(ownedKey, owner);
+                }
+            } finally {
+                //noinspection SynchronizationOnLocalVariableOrMethodParameter
+                synchronized (owner) {
+                    owner.configured = configured; // a configure that threw is left for the next resolution to retry
+                    owner.configuring = null;
+                    owner.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * One generation of bindings, never modified once published so readers need no lock.<br>
+     * A bind, or a whole configure, is collected in a {@link Builder} and published as a copy of the current generation
+     * plus the builder, see {@link #inBindingBatch(Runnable)}. Writes are rare, mostly startup, and pay for the copy.
+     */
+    static final class Bindings {
+        static final Bindings EMPTY = new Bindings(new HashMap<Class<?>, Class<?>>(), new HashMap<Class<?>, Object>(),
+                new HashMap<Class<?>, FuelProvider>(), new HashSet<Class<?>>());
+
+        final @NonNull Map<Class<?>, Class<?>> classToClassMap;
+        final @NonNull Map<Class<?>, Object> classToObjectMap;
+        final @NonNull Map<Class<?>, FuelProvider> classToProviderMap;
+        final @NonNull Set<Class<?>> classMaps;
+        final @NonNull Map<Class<?>, Object> classToObjectMapByLeafType; // instance.getClass() -> instance, what getType hands out
+        final @NonNull Map<Class<?>, Class<?>> leafTypeCache = new ConcurrentHashMap<>(); // resolved against this generation only
+
+        private Bindings(@NonNull Map<Class<?>, Class<?>> classToClassMap, @NonNull Map<Class<?>, Object> classToObjectMap,
+                         @NonNull Map<Class<?>, FuelProvider> classToProviderMap, @NonNull Set<Class<?>> classMaps) {
+            this.classToClassMap = Collections.unmodifiableMap(classToClassMap);
+            this.classToObjectMap = Collections.unmodifiableMap(classToObjectMap);
+            this.classToProviderMap = Collections.unmodifiableMap(classToProviderMap);
+            this.classMaps = Collections.unmodifiableSet(classMaps);
+            Map<Class<?>, Object> byLeafType = new HashMap<>();
+            for (Object obj : classToObjectMap.values()) {
+                byLeafType.put(obj.getClass(), obj);
+            }
+            this.classToObjectMapByLeafType = Collections.unmodifiableMap(byLeafType);
+        }
+
+        @NonNull Bindings plus(@NonNull Builder builder) {
+            Map<Class<?>, Class<?>> classToClassMap = new HashMap<>(this.classToClassMap);
+            Map<Class<?>, Object> classToObjectMap = new HashMap<>(this.classToObjectMap);
+            Map<Class<?>, FuelProvider> classToProviderMap = new HashMap<>(this.classToProviderMap);
+            Set<Class<?>> classMaps = new HashSet<>(this.classMaps);
+            classToClassMap.putAll(builder.classToClassMap);
+            classToObjectMap.putAll(builder.classToObjectMap);
+            classToProviderMap.putAll(builder.classToProviderMap);
+            classMaps.addAll(builder.classMaps);
+            return new Bindings(classToClassMap, classToObjectMap, classToProviderMap, classMaps);
+        }
+
+        /**
+         * The bound instance a lazy of the given type resolved to, if it resolved to one.<br>
+         * Follows the trail from the requested type the way {@link #getType(Class, Integer)} did, since instances are bound
+         * by base type and the leaf type is only the instance's class. A lazy that asked for the leaf type itself, ex: a
+         * constructor argument, falls back on the instance of that class.
+         */
+        @Nullable Object getInstance(@NonNull Class<?> type, @NonNull Class<?> leafType) {
+            for (Class<?> c = type; c != null; c = classToClassMap.get(c)) {
+                Object obj = classToObjectMap.get(c);
+                if (obj != null) {
+                    return obj;
+                }
+                if (classToProviderMap.containsKey(c)) {
+                    return null; // the trail ends at a provider
+                }
+            }
+            return classToObjectMapByLeafType.get(leafType);
+        }
+
+        /** Writable, only ever seen by the thread binding into it */
+        static final class Builder {
+            final @NonNull Map<Class<?>, Class<?>> classToClassMap = new HashMap<>();
+            final @NonNull Map<Class<?>, Object> classToObjectMap = new HashMap<>();
+            final @NonNull Map<Class<?>, FuelProvider> classToProviderMap = new HashMap<>();
+            final @NonNull Set<Class<?>> classMaps = new HashSet<>();
+        }
+    }
+
+    private static final class LazySubmodule {
+        final @NonNull FuelSubmodule submodule;
+        final @NonNull Set<Class<?>> keys;
+        boolean configured; // guarded by this
+        @Nullable Thread configuring; // guarded by this, the thread running configure
+
+        LazySubmodule(@NonNull FuelSubmodule submodule, @NonNull Class<?>[] keys) {
+            this.submodule = submodule;
+            this.keys = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(keys)));
+        }
+    }
+
     Application getApplication() {
         return app;
     }
@@ -480,12 +1068,14 @@ public abstract class FuelModule {
     /**
      * Get an instance based on the FuelModule configure map and the given type
      */
-    Object obtainInstance(Lazy lazy, boolean allowAnonymousNewInstance) throws FuelInjectionException {// FIXME: Submodule
+    @SuppressWarnings("unchecked")
+    Object obtainInstance(Lazy lazy, boolean allowAnonymousNewInstance) throws FuelInjectionException {
         try {
             Class<?> leafType = lazy.getLeafType();
+            Bindings bindings = this.bindings;
 
             // First try direct object map
-            Object obj = classToObjectMap.get(leafType);
+            Object obj = bindings.getInstance(lazy.getType(), leafType);
             if (obj != null) {
                 if (lazy.isDebug()) {
                     FLog.leaveBreadCrumb("obtainInstance got %s", obj.getClass().getSimpleName());
@@ -494,7 +1084,7 @@ public abstract class FuelModule {
             }
 
             // Second try provider map
-            FuelProvider<?> provider = classToProviderMap.get(leafType);
+            FuelProvider<?> provider = bindings.classToProviderMap.get(leafType);
             if (provider != null) {
                 //noinspection unchecked
                 lazy.setInstance(provider.provide(lazy, lazy.getParent()));
@@ -505,7 +1095,7 @@ public abstract class FuelModule {
             }
 
             // Third try class to class map
-            Class<?> toType = classToClassMap.get(leafType);
+            Class<?> toType = bindings.classToClassMap.get(leafType);
             if (toType != null) {
                 //noinspection unchecked
                 lazy.setInstance(onInstanceUnattainable(lazy));
@@ -566,6 +1156,7 @@ public abstract class FuelModule {
      * <br>
      * For best practice, use Mapping & Providers to construct objects.<br>
      */
+    @SuppressWarnings({"deprecation", "unchecked"})
     private Object newInstance(@NonNull FuelModule module, @NonNull Lazy lazy) throws FuelInjectionException {
         try {
 
@@ -573,60 +1164,80 @@ public abstract class FuelModule {
                 FLog.leaveBreadCrumb("newInstance for %s", lazy);
             }
 
+            final Class<?> leafType = lazy.getLeafType();
+            ConstructorPlan plan = constructorPlans.get(leafType);
+            if (plan == null) {
+                plan = planFromSnapshot(leafType);
+            }
+
             // FLog.d( "New Instance %s @ %s", leafType, context );
-            try {
-                return lazy.getLeafType().newInstance();
-            } catch (Exception e) {
-                if (lazy.isDebug()) {
-                    FLog.leaveBreadCrumb("newInstance no empty constructor for %s", lazy);
+            boolean noEmptyConstructor = false;
+            if (plan == null || plan == ConstructorPlan.EMPTY) {
+                try {
+                    Object inst = leafType.newInstance();
+                    if (plan == null) {
+                        rememberPlan(leafType, ConstructorPlan.EMPTY);
+                    }
+                    return inst;
+                } catch (InstantiationException | IllegalAccessException e) {
+                    noEmptyConstructor = true; // remembered below so we don't probe again, the exception is the expensive part
+                    if (lazy.isDebug()) {
+                        FLog.leaveBreadCrumb("newInstance no empty constructor for %s", lazy);
+                    }
+                    // FLog.d( "No Empty Constructor for '%s'", leafType );
+                } catch (Exception e) {
+                    // the empty constructor itself threw, try the others but leave the plan alone
+                    if (lazy.isDebug()) {
+                        FLog.leaveBreadCrumb("newInstance empty constructor failed for %s", lazy);
+                    }
                 }
-                // FLog.d( "No Empty Constructor for '%s'", leafType );
+                plan = null;
             }
 
-            final Class<?> leafType = lazy.getLeafType();
             final Context context = lazy.getContext();
 
-            Constructor[] constructors = leafType.getConstructors();
-            if (constructors.length == 0) {
-                if (lazy.isDebug()) {
-                    FLog.leaveBreadCrumb("newInstance no constructors for %s", lazy);
+            if (plan == null) {
+                Constructor[] constructors = leafType.getConstructors();
+                if (constructors.length == 0) {
+                    if (lazy.isDebug()) {
+                        FLog.leaveBreadCrumb("newInstance no constructors for %s", lazy);
+                    }
+                    throw new Exception("No constructors available for " + leafType + " maybe you need to provide FuelMapping?");
+                }
+                plan = new ConstructorPlan(constructors[0]);
+                if (noEmptyConstructor) {
+                    rememberPlan(leafType, plan);
                 }
-                throw new Exception("No constructors available for " + leafType + " maybe you need to provide FuelMapping?");
             }
-            Constructor ctor = constructors[0];
+            Constructor ctor = plan.ctor;
             // FLog.d( " -- found constructor with args" );
 
-            Class[] parameterTypes = ctor.getParameterTypes();
+            Class[] parameterTypes = plan.parameterTypes;
 
             int len = parameterTypes.length;
             Object[] args = new Object[len];
+            Class[] toTypes = new Class[len];
+            int missing = 0;
             for (int i = 0; i < len; i++) {
-                Class type = parameterTypes[i];
                 // FLog.d( " -- -- resolving %s", type );
-
-                Class toType = getType(type, CacheKey.DEFAULT_FLAVOR); // FIXME: FUEL args should support flavors
-
-                CacheKey key = CacheKey.attain(toType);
-                Object o = getInstance(context, key, lazy, lazy.isDebug());
-                if (o == null) {
-                    // here we say false because we dont want to allow non mapped or non singletons to be instantiated for constructor args.
-                    // If a constructor takes an Integer as an argument, do you think its expecting a new Integer() ? probably not
-                    // but if you want to make exceptions for stuff you can call it out in the FuelModule with markAsInjectable().
-                    o = newInstance(key, Lazy.attain(context, toType), false);
+                toTypes[i] = getType(parameterTypes[i], CacheKey.DEFAULT_FLAVOR); // FIXME: FUEL args should support flavors
+                args[i] = getInstance(context, CacheKey.attain(toTypes[i]), lazy, lazy.isDebug());
+                if (args[i] == null) {
+                    missing++;
                 }
+            }
 
-                if (o != null) {
-                    args[i] = o;
-                } else {
-                    if (lazy.isDebug()) {
-                        FLog.leaveBreadCrumb("newInstance unable to instantiate for %s", lazy);
+            ExecutorService argPool = this.argPool;
+            if (argPool != null && missing > 1) {
+                constructArgsInParallel(argPool, context, lazy, parameterTypes, toTypes, args);
+            } else {
+                for (int i = 0; i < len; i++) {
+                    if (args[i] == null) {
+                        args[i] = constructArg(context, lazy, parameterTypes[i], toTypes[i]);
                     }
-                    throw new FuelInjectionException(
-                            "Unable to instantiate %s -- cannot satisfy argument %s, maybe they're not singletons or not mapped or marked as " +
-                                    "Injectable?",
-                            leafType, type);
                 }
             }
+            deferredOnFueled.recordDependencies(lazy, args); // their onFueled goes first, see doOnFueled
             // FLog.d( " -- found and instantiating... %s", ctor );
             Object inst = ctor.newInstance(args);
             // FLog.d( " -- found and instantiating... success %s", ctor );
@@ -657,16 +1268,143 @@ public abstract class FuelModule {
         throw new FuelInjectionException("Unable to instantiate %s", lazy);
     }
 
+    /** An argument of the constructor of lazy's leaf type that was not cached */
+    @SuppressWarnings("unchecked")
+    private @NonNull Object constructArg(@NonNull Context context, @NonNull Lazy lazy, @NonNull Class type, @NonNull Class toType)
+            throws FuelInjectionException {
+        // here we say false because we dont want to allow non mapped or non singletons to be instantiated for constructor args.
+        // If a constructor takes an Integer as an argument, do you think its expecting a new Integer() ? probably not
+        // but if you want to make exceptions for stuff you can call it out in the FuelModule with markAsInjectable().
+        Object o = newInstance(CacheKey.attain(toType), Lazy.attain(context, toType), false);
+        if (o == null) {
+            if (lazy.isDebug()) {
+                FLog.leaveBreadCrumb("newInstance unable to instantiate for %s", lazy);
+            }
+            throw new FuelInjectionException(
+                    "Unable to instantiate %s -- cannot satisfy argument %s, maybe they're not singletons or not mapped or marked as " +
+                            "Injectable?",
+                    lazy.getLeafType(), type);
+        }
+        return o;
+    }
+
+    /**
+     * Construct the arguments that were not cached at the same time: all but the first are forked to the pool, the first is
+     * constructed on this thread which then runs whatever the pool has not started yet before it joins the rest.<br>
+     * Helping rather than only waiting is what keeps nested parallel constructions from starving the pool.<br>
+     * A dependency shared by several arguments is still built once, singletons are created under their leaf type's lock and
+     * looked up again once it's held, see {@link #newInstance(CacheKey, Lazy, boolean)}.
+     *
+     * @param args the cached arguments, the others are null and filled in
+     */
+    private void constructArgsInParallel(@NonNull ExecutorService argPool, @NonNull final Context context, @NonNull final Lazy lazy,
+                                         @NonNull Class[] parameterTypes, @NonNull Class[] toTypes, @NonNull Object[] args) throws Exception {
+        List<FutureTask<Object>> forked = new ArrayList<>(args.length);
+        int first = -1;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] != null) {
+                    forked.add(null);
+                } else if (first < 0) {
+                    first = i;
+                    forked.add(null);
+                } else {
+                    final Class type = parameterTypes[i];
+                    final Class toType = toTypes[i];
+                    FutureTask<Object> task = new FutureTask<>(new Callable<Object>() {
+                        @Override public Object call() {
+                            return constructArg(context, lazy, type, toType);
+                        }
+                    });
+                    forked.add(task);
+                    try {
+                        argPool.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        // the pool was just replaced, we run it ourselves below
+                    }
+                }
+            }
+
+            args[first] = constructArg(context, lazy, parameterTypes[first], toTypes[first]);
+            for (int i = 0; i < args.length; i++) {
+                FutureTask<Object> task = forked.get(i);
+                if (task != null) {
+                    task.run(); // does nothing when the pool got to it first
+                    args[i] = task.get();
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } finally {
+            for (FutureTask<Object> task : forked) {
+                if (task != null) {
+                    task.cancel(false); // only matters when we failed, whatever has not started never will
+                }
+            }
+        }
+    }
+
+    /** The plan a {@link ResolutionSnapshot} has for leafType, remembered like one that was searched for; null when it has none */
+    private @Nullable ConstructorPlan planFromSnapshot(@NonNull Class<?> leafType) {
+        ResolutionSnapshot snapshot = resolutionSnapshot;
+        Class<?>[] parameterTypes = snapshot == null ? null : snapshot.getConstructorParameterTypes(leafType);
+        if (parameterTypes == null) {
+            return null;
+        }
+        ConstructorPlan plan;
+        if (parameterTypes.length == 0) {
+            plan = ConstructorPlan.EMPTY;
+        } else {
+            try {
+                plan = new ConstructorPlan(leafType.getConstructor(parameterTypes));
+            } catch (NoSuchMethodException e) {
+                return null; // changed since the snapshot, searched for again
+            }
+        }
+        constructorPlans.put(leafType, plan);
+        return plan;
+    }
+
+    private void rememberPlan(@NonNull Class<?> leafType, @NonNull ConstructorPlan plan) {
+        constructorPlans.put(leafType, plan);
+        ResolutionSnapshot snapshot = resolutionSnapshot;
+        if (snapshot != null) {
+            snapshot.recordConstructor(leafType, plan.parameterTypes);
+        }
+    }
+
+    /**
+     * The constructor {@link #newInstance(FuelModule, Lazy)} settled on for a leaf type, so the next instance skips the search.<br>
+     * {@link #EMPTY} when the empty constructor works.
+     */
+    private static final class ConstructorPlan {
+        static final ConstructorPlan EMPTY = new ConstructorPlan(null);
+
+        final Constructor ctor;
+        final Class[] parameterTypes;
+
+        ConstructorPlan(Constructor ctor) {
+            this.ctor = ctor;
+            this.parameterTypes = ctor == null ? new Class[0] : ctor.getParameterTypes();
+        }
+    }
+
     /**
      * @param lazy must have an instance
      * @return
      * @throws Exception
      */
+    @SuppressWarnings("unchecked")
     Object initializeNewInstance(Lazy lazy) throws Exception {
         if (lazy.isDebug()) {
             FLog.leaveBreadCrumb("initializeNewInstance for %s", lazy);
         }
         FuelInjector.get().doPostProcess(lazy);
+        FuelInjector.get().injectFields(lazy);
 
         doOnFueled(lazy, false);
         if (FuelInjector.get().isSingleton(lazy.getLeafType())) { // TODO: could totally cache lazy.isSingleton ... later.
@@ -692,19 +1430,25 @@ public abstract class FuelModule {
      * @return
      */
     // Must stay logically paired with obtainInstance -- not super cool but ... for now.
+    @SuppressWarnings("unchecked")
     @NonNull <T> Class<? extends T> getType(Class<T> baseType, Integer flavor) {
-        Object obj = classToObjectMap.get(baseType);
+        if (!lazySubmodules.isEmpty()) {
+            configureOwner(baseType); // before the look-up, toLeafType caches what we return
+        }
+
+        Bindings bindings = this.bindings;
+        Object obj = bindings.classToObjectMap.get(baseType);
         if (obj != null) {
             //noinspection unchecked
             return (Class<? extends T>) obj.getClass(); // reaching an instance is the end of a trail.
         }
 
-        FuelProvider<?> provider = classToProviderMap.get(baseType);
+        FuelProvider<?> provider = bindings.classToProviderMap.get(baseType);
         if (provider != null) {
             return baseType; // reaching a provider is the end of the trail.
         }
 
-        Class<?> toType = classToClassMap.get(baseType);
+        Class<?> toType = bindings.classToClassMap.get(baseType);
         if (toType != null) {
             return (Class<? extends T>) getType(toType, flavor); // Recursive check
         }
@@ -712,54 +1456,33 @@ public abstract class FuelModule {
         return baseType; // no further mappings -- must be the end of the trail.
     }
 
-    /**
-     * @param primeTheCacheEntry if true, an empty entry will be added for this context if not already present, false leaves it alone and returns
-     *                           empty
-     * @return an "immutable" map when primeTheCachEntry = false :/ meh
-     */
-    Map<CacheKey, Object> getCacheByScopeObjectNotThreadSafe(@NonNull Lazy lazy, boolean primeTheCacheEntry) { // FIXME: Submodule
-        Map<CacheKey, Object> scopeObjectCache = null;
-        Scope cacheScope = lazy.toCacheScope();
-        Object scopeObject = lazy.toObjectScope();
-
-        // if either are null then this lazy is not cacheable
-        if (cacheScope != null && scopeObject != null) {
-            WeakHashMap<Object, Map<CacheKey, Object>> cache = scopeCache.get(cacheScope);
-            if (cache == null) {
-                cache = new WeakHashMap<>();
-                scopeCache.put(cacheScope, cache);
-            }
-
-            scopeObjectCache = cache.get(scopeObject);
-            if (scopeObjectCache == null) {
-                if (primeTheCacheEntry) {
-                    scopeObjectCache = new HashMap<>();
-                    cache.put(scopeObject, scopeObjectCache);
-                }
-            }
-        }
-
-        // Shouldn't be able to prime the cache if not cacheable -- but potential fail
-        if (scopeObjectCache == null) {
-            scopeObjectCache = Collections.emptyMap();
-        }
-        return scopeObjectCache;
-    }
-
-
+    @SuppressWarnings("unchecked")
     final @NonNull <T> Class<? extends T> toLeafType(@NonNull Class<T> type, Integer flavor) {
         if (flavor == null) {
-            Class leafType = leafTypeCache.get(type.hashCode());
+            Map<Class<?>, Class<?>> leafTypeCache = bindings.leafTypeCache; // before getType, which may publish a newer generation
+            Class<?> leafType = leafTypeCache.get(type);
             if (leafType == null) {
-                leafType = getType(type, null);
-                leafTypeCache.put(type.hashCode(), leafType);
+                ResolutionSnapshot snapshot = resolutionSnapshot;
+                if (snapshot != null && lazySubmodules.isEmpty()) { // a waiting lazy submodule is configured by getType's walk
+                    leafType = snapshot.getLeafType(type);
+                }
+                if (leafType == null) {
+                    leafType = getType(type, null);
+                    if (snapshot != null) {
+                        snapshot.recordLeafType(type, leafType);
+                    }
+                }
+                leafTypeCache.put(type, leafType); // racing threads resolve the same answer, last write wins harmlessly
             }
-            return leafType;
+            return (Class<? extends T>) leafType;
         }
         return getType(type, flavor);
     }
 
 
+    /**
+     * Always the root: submodules, lazily configured ones included, bind into the root's maps so one flat look-up resolves everything.
+     */
     @NonNull FuelModule findModule(@NonNull Lazy<?> lazy) {
         return FuelInjector.get().getRootModule();
     }
@@ -773,6 +1496,16 @@ public abstract class FuelModule {
                 if (lazy.isDebug()) {
                     FLog.leaveBreadCrumb("newInstance for singleton %s", lazy);
                 }
+                if (Scope.Custom.equals(lazy.getScope()) && lazy.toObjectScope() == null) {
+                    throw new FuelScopeViolationException("Fuel Scope Violation: %s is not active, begin it before get() %s", lazy.getCustomScope(), lazy);
+                }
+                if (FuelInjector.get().isBackgroundInit(lazy.getLeafType()) && FuelInjector.get().inMainThread()) {
+                    object = (T) getObjectByContextType(lazy, key);
+                    if (object == null) { // never constructed here, wait for a background thread to do it
+                        object = (T) backgroundInitializer.join(lazy, key);
+                    }
+                    return object;
+                }
                 synchronized (lazy.getLeafType()) {
                     object = (T) getObjectByContextType(lazy, key);
                     if (lazy.isDebug()) {
@@ -822,7 +1555,13 @@ public abstract class FuelModule {
                 FLog.leaveBreadCrumb("attainInstance for key: %s and lazy: %s", key, lazy);
             }
 
-            T obj = getInstance(lazy.getContext(), key, lazy, lazy.isDebug()); // go into getInstance here. grrrr.
+            final Context context = lazy.getContext();
+            StartupProfiler profiler = startupProfiler;
+            if (profiler != null) {
+                profiler.record(lazy, context);
+            }
+
+            T obj = getInstance(context, key, lazy, lazy.isDebug()); // go into getInstance here. grrrr.
             if (lazy.isDebug()) {
                 FLog.leaveBreadCrumb("attainInstance getInstance returned %s", obj == null ? "null" : obj.getClass().getSimpleName());
             }
@@ -845,32 +1584,105 @@ public abstract class FuelModule {
     }
 
 
+    /**
+     * {@link #attainInstance(CacheKey, Lazy, boolean)} for pre-processed lazies of one parent, see {@link Lazy#attainAll(Object, Class[])}.<br>
+     * Each scope object is worked out once, a custom scope's for every lazy, and every cached singleton is found in one pass
+     * under the cache lock.<br>
+     * Whatever is not cached is left to {@link Lazy#get()}.
+     */
+    @SuppressWarnings("unchecked")
+    final void attainInstances(@NonNull List<? extends Lazy<?>> lazies) throws FuelInjectionException {
+        int size = lazies.size();
+        Scope[] cacheScopes = new Scope[size];
+        Object[] scopeObjects = new Object[size];
+        CacheKey[] keys = new CacheKey[size];
+        Map<Scope, Object> scopeObjectByScope = new EnumMap<>(Scope.class); // one parent, so one scope object per scope but Custom
+        StartupProfiler profiler = startupProfiler;
+        for (int i = 0; i < size; i++) {
+            Lazy<?> lazy = lazies.get(i);
+            if (profiler != null) {
+                profiler.record(lazy, lazy.getContext()); // a cache hit never reaches attainInstance
+            }
+            Class<?> leafType = lazy.getLeafType();
+            if (FuelInjector.get().isContext(leafType) || FuelInjector.get().isService(leafType)) {
+                continue; // not from the cache, see getInstance
+            }
+            Scope cacheScope = lazy.toCacheScope();
+            if (cacheScope == null) {
+                continue;
+            }
+            Object scopeObject;
+            if (Scope.Custom.equals(cacheScope)) {
+                scopeObject = lazy.toObjectScope(); // every custom scope is Scope.Custom, each with a run of its own
+            } else if (scopeObjectByScope.containsKey(cacheScope)) {
+                scopeObject = scopeObjectByScope.get(cacheScope);
+            } else {
+                scopeObject = lazy.toObjectScope();
+                scopeObjectByScope.put(cacheScope, scopeObject);
+            }
+            if (scopeObject != null) {
+                cacheScopes[i] = cacheScope;
+                scopeObjects[i] = scopeObject;
+                keys[i] = lazy.toCacheKey();
+            }
+        }
+
+        Object[] cached = scopeCache.getAll(cacheScopes, scopeObjects, keys);
+        for (int i = 0; i < size; i++) {
+            Lazy lazy = lazies.get(i);
+            if (cached[i] != null) {
+                //noinspection unchecked
+                lazy.setCachedInstance(cached[i]);
+            } else {
+                lazy.get();
+            }
+        }
+    }
+
+    /**
+     * @return the given pre-processed lazy's singleton when its scope has it cached, null otherwise -- never constructs
+     */
+    final @Nullable Object getCachedInstance(@NonNull Lazy<?> lazy) {
+        return getObjectByContextType(lazy, lazy.toCacheKey());
+    }
+
     private @Nullable Object getObjectByContextType(@Nullable Lazy lazy, CacheKey key) {
         if (lazy == null) return null;
-        Lock lock = cacheLock.readLock();
-        try {
-            lock.lock();
-            Map<CacheKey, Object> scopeObjectCache = getCacheByScopeObjectNotThreadSafe(lazy, false);
-            return scopeObjectCache.get(key);
-        } finally {
-            lock.unlock();
-        }
+        Scope cacheScope = lazy.toCacheScope();
+        Object scopeObject = lazy.toObjectScope();
+
+        // if either are null then this lazy is not cacheable
+        if (cacheScope == null || scopeObject == null) return null;
+        return scopeCache.get(cacheScope, scopeObject, key);
+    }
+
+    /**
+     * @return the keys cached against the given scope object, empty when there are none
+     */
+    @NonNull List<CacheKey> getCachedKeys(@NonNull Scope scope, @NonNull Object scopeObject) {
+        return scopeCache.getKeys(scope, scopeObject);
+    }
+
+    /**
+     * Shallow copy of Scope -> ScopeObject -> CacheKey -> instance.
+     */
+    @NonNull Map<Scope, Map<Object, Map<CacheKey, Object>>> copyScopeCache() {
+        return scopeCache.copy();
     }
 
     /**
      * @param value instance not lazy, cannot be null
      */
     void putObjectByScopeObject(@NonNull Lazy lazy, CacheKey key, Object value) {
-        Lock lock = cacheLock.writeLock();
-        try {
-            lock.lock();
-            Map<CacheKey, Object> scopeObjectCache = getCacheByScopeObjectNotThreadSafe(lazy, true);
-            scopeObjectCache.put(key, value);
-        } finally {
-            lock.unlock();
-        }
+        Scope cacheScope = lazy.toCacheScope();
+        Object scopeObject = lazy.toObjectScope();
+
+        // Shouldn't be able to cache if not cacheable -- but potential fail
+        if (cacheScope == null || scopeObject == null) return;
+        scopeCache.put(cacheScope, scopeObject, key, value);
     }
 
+    @SuppressWarnings("unchecked")
     final @Nullable <T> T getInstance(@NonNull Context context, @NonNull CacheKey key, @Nullable Lazy lazy, boolean debug) {
         if (FuelInjector.get().isApplication(key.getLeafType())) {
             if (debug) {
@@ -907,6 +1719,7 @@ public abstract class FuelModule {
     }
 
     // Currently ignite is talking directly to the cache and is messy :(
+    @SuppressWarnings("unchecked")
     final <T> T getServiceInstance(Lazy lazy, CacheKey key, boolean willingToWait) {
         boolean inMainThread = FuelInjector.get().inMainThread();
         long maxTimeMillis = 1000;
@@ -0,0 +1,23 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Decides when Fuel's deferrable work runs, ex: the onFueled of {@link DeferOnFueled} types.<br>
+ * Fuel keeps the work and its order, the scheduler only says when -- {@link MainThreadIdleScheduler} on a device, a plain
+ * executor on the JVM.
+ */
+public interface IdleScheduler {
+
+    /**
+     * Run the given task once, the next time there is nothing better to do.<br>
+     * The task does a bounded slice of work and schedules itself again when there is more.
+     */
+    void scheduleIdle(@NonNull Runnable task);
+
+    /**
+     * @return true when called on the thread the tasks run on. Fuel runs deferred work ahead of its turn only there, ex: the
+     * onFueled of a deferred constructor argument that a type which is not deferred needs first.
+     */
+    boolean isSchedulerThread();
+}
@@ -0,0 +1,223 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable point-in-time picture of what Fuel is holding on to.<br>
+ * Obtain one via FuelInjector.snapshotInjectionGraph(boolean).<br>
+ * <br>
+ * Scope -> ScopeObject -> CacheKey -> Instance<br>
+ * Parent -> Lazies pending pre-process (waiting on ignite)<br>
+ * ScopeObject -> Instance -> Lazy (the reverse lookup used by ignite and attain)<br>
+ * <br>
+ * Every object is held weakly so a snapshot never keeps an Activity alive, descriptions are captured at snapshot time.<br>
+ * Shallow sizes are -1 unless requested, see {@link ShallowSizeEstimator} for what they are and what they are not.
+ */
+public final class InjectionGraph {
+    public static final long SIZE_UNKNOWN = -1;
+
+    /** A weakly held object and how it looked when the snapshot was taken */
+    public static class Node {
+        private final @NonNull WeakReference<Object> ref;
+        private final @NonNull String description;
+        private final long shallowBytes;
+
+        Node(@Nullable Object object, long shallowBytes) {
+            this.ref = new WeakReference<>(object);
+            this.description = describe(object);
+            this.shallowBytes = shallowBytes;
+        }
+
+        /** null once GC'd */
+        public final @Nullable Object get() {
+            return ref.get();
+        }
+
+        public final @NonNull String getDescription() {
+            return description;
+        }
+
+        /** {@link #SIZE_UNKNOWN} when sizes were not requested */
+        public final long getShallowBytes() {
+            return shallowBytes;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /** A cached instance within a scope object */
+    public static final class InstanceNode extends Node {
+        private final @NonNull CacheKey key;
+
+        InstanceNode(@NonNull CacheKey key, @Nullable Object instance, long shallowBytes) {
+            super(instance, shallowBytes);
+            this.key = key;
+        }
+
+        public @NonNull CacheKey getKey() {
+            return key;
+        }
+    }
+
+    /** An Activity, Application or ViewRoot and the singletons cached against it */
+    public static final class ScopeObjectNode extends Node {
+        private final @NonNull List<InstanceNode> instances;
+        private final long retainedShallowBytes;
+
+        ScopeObjectNode(@Nullable Object scopeObject, long shallowBytes, @NonNull List<InstanceNode> instances, long retainedShallowBytes) {
+            super(scopeObject, shallowBytes);
+            this.instances = Collections.unmodifiableList(instances);
+            this.retainedShallowBytes = retainedShallowBytes;
+        }
+
+        public @NonNull List<InstanceNode> getInstances() {
+            return instances;
+        }
+
+        public int getInstanceCount() {
+            return instances.size();
+        }
+
+        /** Sum of the shallow sizes of the cached instances, {@link #SIZE_UNKNOWN} when sizes were not requested */
+        public long getInstancesShallowBytes() {
+            return retainedShallowBytes;
+        }
+    }
+
+    /** All scope objects of a given {@link Scope} ordered by size (or count when sizes were not requested), biggest first */
+    public static final class ScopeNode {
+        private final @NonNull Scope scope;
+        private final @NonNull List<ScopeObjectNode> scopeObjects;
+        private final int instanceCount;
+        private final long shallowBytes;
+
+        ScopeNode(@NonNull Scope scope, @NonNull List<ScopeObjectNode> scopeObjects, int instanceCount, long shallowBytes) {
+            this.scope = scope;
+            this.scopeObjects = Collections.unmodifiableList(scopeObjects);
+            this.instanceCount = instanceCount;
+            this.shallowBytes = shallowBytes;
+        }
+
+        public @NonNull Scope getScope() {
+            return scope;
+        }
+
+        public @NonNull List<ScopeObjectNode> getScopeObjects() {
+            return scopeObjects;
+        }
+
+        public int getInstanceCount() {
+            return instanceCount;
+        }
+
+        /** {@link #SIZE_UNKNOWN} when sizes were not requested */
+        public long getShallowBytes() {
+            return shallowBytes;
+        }
+    }
+
+    /** A parent that has not been ignited yet and the Lazies waiting on it */
+    public static final class PendingNode extends Node {
+        private final @NonNull List<String> lazies;
+
+        PendingNode(@Nullable Object parent, @NonNull List<String> lazies) {
+            super(parent, SIZE_UNKNOWN);
+            this.lazies = Collections.unmodifiableList(lazies);
+        }
+
+        /** descriptions of the pending Lazies */
+        public @NonNull List<String> getLazies() {
+            return lazies;
+        }
+    }
+
+    /** A scope object and the Lazy remembered for each instance injected or ignited within it */
+    public static final class LazyIndexNode extends Node {
+        private final @NonNull List<Node> instances;
+        private final @NonNull List<String> lazies;
+
+        LazyIndexNode(@Nullable Object scopeObject, @NonNull List<Node> instances, @NonNull List<String> lazies) {
+            super(scopeObject, SIZE_UNKNOWN);
+            this.instances = Collections.unmodifiableList(instances);
+            this.lazies = Collections.unmodifiableList(lazies);
+        }
+
+        /** Parallel to {@link #getLazies()} */
+        public @NonNull List<Node> getInstances() {
+            return instances;
+        }
+
+        /** descriptions of the remembered Lazies, parallel to {@link #getInstances()} */
+        public @NonNull List<String> getLazies() {
+            return lazies;
+        }
+    }
+
+    private final long timestampMillis;
+    private final @NonNull List<ScopeNode> scopes;
+    private final @NonNull List<PendingNode> pending;
+    private final @NonNull List<LazyIndexNode> lazyIndex;
+
+    InjectionGraph(long timestampMillis, @NonNull List<ScopeNode> scopes, @NonNull List<PendingNode> pending, @NonNull List<LazyIndexNode> lazyIndex) {
+        this.timestampMillis = timestampMillis;
+        this.scopes = Collections.unmodifiableList(scopes);
+        this.pending = Collections.unmodifiableList(pending);
+        this.lazyIndex = Collections.unmodifiableList(lazyIndex);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public @NonNull List<ScopeNode> getScopes() {
+        return scopes;
+    }
+
+    public @Nullable ScopeNode getScope(@NonNull Scope scope) {
+        for (ScopeNode node : scopes) {
+            if (node.getScope() == scope) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    public @NonNull List<PendingNode> getPending() {
+        return pending;
+    }
+
+    public int getPendingLazyCount() {
+        int count = 0;
+        for (PendingNode node : pending) {
+            count += node.getLazies().size();
+        }
+        return count;
+    }
+
+    public @NonNull List<LazyIndexNode> getLazyIndex() {
+        return lazyIndex;
+    }
+
+    public int getLazyIndexCount() {
+        int count = 0;
+        for (LazyIndexNode node : lazyIndex) {
+            count += node.getLazies().size();
+        }
+        return count;
+    }
+
+    static @NonNull String describe(@Nullable Object object) {
+        if (object == null) {
+            return "null";
+        }
+        return String.format("%s[%x]", object.getClass().getSimpleName(), System.identityHashCode(object));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+import com.ath.fuel.err.FuelInjectionException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Attain} fields of a class, its superclasses included, worked out once per class.<br>
+ * Framework superclasses (java, android) are not scanned, they have nothing for us.
+ */
+final class InjectionPlan {
+
+    /**
+     * The Lazies attained for one object, not yet in its fields.<br>
+     * The caller pre-processes or enqueues them all in one go and then {@link #assign(Object)}s them.
+     */
+    static final class Injection {
+        private final @NonNull List<Field> fields;
+        private final @NonNull List<Lazy> lazies;
+
+        private Injection(@NonNull List<Field> fields, @NonNull List<Lazy> lazies) {
+            this.fields = fields;
+            this.lazies = lazies;
+        }
+
+        @NonNull List<Lazy> getLazies() {
+            return lazies;
+        }
+
+        void assign(@NonNull Object instance) throws FuelInjectionException {
+            try {
+                for (int i = 0; i < fields.size(); i++) {
+                    fields.get(i).set(instance, lazies.get(i));
+                }
+            } catch (IllegalAccessException e) {
+                throw new FuelInjectionException(e);
+            }
+        }
+    }
+
+    private static final Map<Class<?>, InjectionPlan> plans = new ConcurrentHashMap<>();
+    private static final InjectionPlan EMPTY = new InjectionPlan(new Field[0], new Class<?>[0], new Integer[0]);
+
+    private final @NonNull Field[] fields;
+    private final @NonNull Class<?>[] types;
+    private final @NonNull Integer[] flavors;
+
+    private InjectionPlan(@NonNull Field[] fields, @NonNull Class<?>[] types, @NonNull Integer[] flavors) {
+        this.fields = fields;
+        this.types = types;
+        this.flavors = flavors;
+    }
+
+    static @NonNull InjectionPlan of(@NonNull Class<?> type) throws FuelInjectionException {
+        InjectionPlan plan = plans.get(type);
+        if (plan == null) {
+            plan = build(type);
+            plans.put(type, plan); // racing threads build the same plan, last write wins harmlessly
+        }
+        return plan;
+    }
+
+    boolean isEmpty() {
+        return fields.length == 0;
+    }
+
+    /** Configures the lazy submodules of the field types before the caller locks the instance, see {@link FuelModule#configureOwnerOf(Class)} */
+    void configureOwners(@NonNull FuelModule module) {
+        for (Class<?> type : types) {
+            module.configureOwnerOf(type);
+        }
+    }
+
+    /**
+     * New, unprocessed Lazies for the fields of the given instance that are still null.
+     *
+     * @param isInEditMode true for a View in edit mode, see {@link Lazy#get()}
+     */
+    @NonNull Injection attain(@NonNull Object instance, boolean isInEditMode) throws FuelInjectionException {
+        List<Field> fields = new ArrayList<>(this.fields.length);
+        List<Lazy> lazies = new ArrayList<>(this.fields.length);
+        try {
+            for (int i = 0; i < this.fields.length; i++) {
+                if (this.fields[i].get(instance) == null) {
+                    fields.add(this.fields[i]);
+                    lazies.add(Lazy.newInstanceInjected(instance, types[i], flavors[i], isInEditMode));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new FuelInjectionException(e);
+        }
+        return new Injection(fields, lazies);
+    }
+
+    private static @NonNull InjectionPlan build(@NonNull Class<?> type) throws FuelInjectionException {
+        List<Field> fields = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        List<Integer> flavors = new ArrayList<>();
+        for (Class<?> c = type; c != null && !isFramework(c); c = c.getSuperclass()) {
+            int start = 0; // each superclass goes in front of its subclass, its own fields in declaration order
+            for (Field field : c.getDeclaredFields()) {
+                Attain attain = field.getAnnotation(Attain.class);
+                if (attain == null) {
+                    continue;
+                }
+                int modifiers = field.getModifiers();
+                if (Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers) || field.getType() != Lazy.class) {
+                    throw new FuelInjectionException("@Attain %s.%s must be a non-final, non-static Lazy", c.getName(), field.getName());
+                }
+                field.setAccessible(true);
+                fields.add(start, field);
+                types.add(start, toLazyType(field));
+                flavors.add(start, attain.flavor() == Attain.DEFAULT_FLAVOR ? CacheKey.DEFAULT_FLAVOR : Integer.valueOf(attain.flavor()));
+                start++;
+            }
+        }
+
+        if (fields.isEmpty()) {
+            return EMPTY;
+        }
+        // superclass fields first, each class's in declaration order -- the order its constructors would have initialized them
+        return new InjectionPlan(fields.toArray(new Field[0]), types.toArray(new Class<?>[0]), flavors.toArray(new Integer[0]));
+    }
+
+    /** The T of a Lazy&lt;T&gt; field */
+    private static @NonNull Class<?> toLazyType(@NonNull Field field) throws FuelInjectionException {
+        Type generic = field.getGenericType();
+        if (generic instanceof ParameterizedType) {
+            Type arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+            if (arg instanceof ParameterizedType) {
+                arg = ((ParameterizedType) arg).getRawType(); // Lazy<List<Foo>> is a Lazy<List>, same as attain(this, List.class)
+            }
+            if (arg instanceof Class) {
+                return (Class<?>) arg;
+            }
+        }
+        throw new FuelInjectionException("@Attain %s.%s must declare the type it attains, ex: Lazy<Foo>",
+                field.getDeclaringClass().getName(), field.getName());
+    }
+
+    private static boolean isFramework(@NonNull Class<?> c) {
+        String name = c.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("android.") || name.startsWith("androidx.");
+    }
+}
@@ -9,9 +9,12 @@ import androidx.annotation.Nullable;
 import androidx.core.util.Preconditions;
 
 import com.ath.fuel.err.FuelInjectionException;
+import com.ath.fuel.err.FuelThreadPolicyException;
 import com.ath.fuel.err.FuelUnableToObtainContextException;
 
 import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 
 @SuppressWarnings({"unchecked", "BooleanMethodIsAlwaysInverted", "WeakerAccess", "FinalPrivateMethod", "FinalStaticMethod", "unused", "UnusedAssignment"})
@@ -29,34 +32,92 @@ public final class Lazy<T> {
         return newInstance(parent, clazz, flavor);
     }
 
+    /**
+     * Like {@link #attain(Object, Class)} but repeated calls for the same parent, type and flavor return the same Lazy,
+     * already resolved after its first {@link #get()}. For code that attains on every call -- adapters, onBind, helpers.<br>
+     * <br>
+     * The memo is held weakly by parent and goes with it. It holds the Lazy weakly too, so it never keeps the parent alive, even
+     * through an instance that references it, and the same Lazy comes back for as long as something else references it.
+     * {@link FuelModule#setMemoizeLaziesStrongly(boolean)} keeps it across GCs instead.
+     */
+    public static @NonNull <TYPE> Lazy<TYPE> attainMemoized(@NonNull Object parent, @NonNull Class<TYPE> clazz) {
+        return attainMemoized(parent, clazz, CacheKey.DEFAULT_FLAVOR);
+    }
+
+    /**
+     * @see #attainMemoized(Object, Class)
+     */
+    public static @NonNull <TYPE> Lazy<TYPE> attainMemoized(@NonNull Object parent, @NonNull Class<TYPE> clazz, Integer flavor) {
+        return FuelInjector.get().attainMemoized(parent, clazz, flavor);
+    }
+
+    /**
+     * {@link #attain(Object, Class)} for several types at once, in the order given, all with the default flavor.<br>
+     * When the parent is ignited they come back resolved: the parent is looked up once, its context and scope objects are worked
+     * out once and every cached singleton is found in one pass. Anything not cached is constructed as {@link #get()} would.<br>
+     * Otherwise they are queued together and resolved at ignite, like any attain.
+     */
+    public static @NonNull List<Lazy<?>> attainAll(@NonNull Object parent, @NonNull Class<?>... types) {
+        return FuelInjector.get().attainAll(parent, types);
+    }
+
+    /**
+     * Like {@link #attain(Object, Class)} but does no work until the first {@link #get()}.<br>
+     * Only the parent, type and flavor are recorded -- mapping, scope validation and the parent look-up all happen on first get(),
+     * which must come after the parent is ignited. Meant for Lazies that are rarely used, so declaring them costs next to nothing.<br>
+     * <br>
+     * In {@link FuelInjector#isDebug()} an already ignited parent is resolved right away so scope violations still fail at attain.
+     */
+    public static @NonNull <TYPE> Lazy<TYPE> attainDeferred(@NonNull Object parent, @NonNull Class<TYPE> clazz) {
+        return attainDeferred(parent, clazz, CacheKey.DEFAULT_FLAVOR);
+    }
+
+    /**
+     * @see #attainDeferred(Object, Class)
+     */
+    public static @NonNull <TYPE> Lazy<TYPE> attainDeferred(@NonNull Object parent, @NonNull Class<TYPE> clazz, Integer flavor) {
+        boolean isInEditMode = parent instanceof View && ((View) parent).isInEditMode();
+        Lazy<TYPE> lazy = new Lazy<>(parent, clazz, flavor, false, isInEditMode, true);
+        if (!isInEditMode && FuelInjector.get().isDebug() && FuelInjector.get().isInitialized()) {
+            FuelInjector.get().validateDeferred(lazy);
+        }
+        return lazy;
+    }
+
     private static @NonNull <TYPE> Lazy<TYPE> newInstance(@NonNull View parent, @NonNull Class<TYPE> clazz, Integer flavor) {
-        Lazy<TYPE> lazy = new Lazy<>(parent, clazz, flavor, false);
-        lazy.isInEditMode = parent.isInEditMode();
-        if (!lazy.isInEditMode) {
+        Lazy<TYPE> lazy = new Lazy<>(parent, clazz, flavor, false, parent.isInEditMode(), false);
+        if (!lazy.isInEditMode()) {
             preInitializeNewLazy(lazy, parent);
         }
         return lazy;
     }
 
     private static @NonNull <TYPE> Lazy<TYPE> newInstance(@NonNull Object parent, @NonNull Class<TYPE> clazz, Integer flavor) {
-        Lazy<TYPE> lazy = new Lazy<>(parent, clazz, flavor, false);
+        Lazy<TYPE> lazy = new Lazy<>(parent, clazz, flavor, false, false, false);
         preInitializeNewLazy(lazy, parent);
         return lazy;
     }
 
     static @NonNull Lazy newInstanceIgnited(@NonNull Context context, @NonNull Object parent) {
-        Lazy lazy = new Lazy(parent, parent.getClass(), CacheKey.DEFAULT_FLAVOR, true);
-        lazy.useWeakInstance = true; // weak here because its expected that this parent was ignited
+        Lazy lazy = new Lazy(parent, parent.getClass(), CacheKey.DEFAULT_FLAVOR, true, false, false);
         lazy.setInstance(parent);
         return lazy;
     }
 
-    // if called from background thread without a context, throw an error -- for now i'm just calling red to see them all
+    /** Not pre-processed nor enqueued, the caller does that for all of an object's {@link Attain} fields at once */
+    static @NonNull Lazy newInstanceInjected(@NonNull Object parent, @NonNull Class<?> type, Integer flavor, boolean isInEditMode) {
+        return new Lazy(parent, type, flavor, false, isInEditMode, false);
+    }
+
+    // attained off the main thread, see ThreadPolicy -- the policy is read first so no policy costs one volatile read
     static final void doThreadCheck(@NonNull Lazy<?> lazy) {
-        if (!FuelInjector.get().inMainThread()) {
-            StackTraceElement elem = FLog.findStackElem(Lazy.class);
-            FLog.e(new IllegalStateException(
-                    "Attain Lazy " + lazy.getType() + " from a bg. " + FLog.getSimpleName(elem) + "@" + elem.getLineNumber()));
+        ThreadPolicy policy = FuelInjector.get().getThreadPolicy();
+        if (policy != null && !FuelInjector.get().inMainThread()) {
+            try {
+                policy.onOffMainThreadAttain(lazy);
+            } catch (FuelThreadPolicyException e) {
+                throw FuelInjector.get().doFailure(lazy, e);
+            }
         }
     }
 
@@ -68,6 +129,10 @@ public final class Lazy<T> {
         Context context = null;
         Lazy lazyParent = null;
 
+        if (FuelInjector.get().isInitialized()) {
+            FuelInjector.get().getRootModule().configureOwnerOf(lazy.getType()); // before any lock, see FuelModule#configureOwnerOf
+        }
+
         try {
             if (FuelInjector.get().isDebug()) {
                 FLog.leaveBreadCrumb("initialize lazy %s, %s", lazy, parent);
@@ -96,34 +161,46 @@ public final class Lazy<T> {
         }
     }
 
-    boolean onFueledCalled = false;
-    Scope scope;
-    boolean preProcessed = false;
-    boolean postProcessed = false;
-
-    private final WeakReference<Object> parentRef;
-
-    final @NonNull Class<T> type; // the type requested, but not necessarily the type to be instantiated
-    Class<?> leafType; // the type to be instantiated, not necessarily the type requested but some derivitive.
-    private boolean useWeakInstance = false;
-    private T instance = null;
-    private WeakReference<T> instanceRef; // for the cases we identify that we don't want to keep a strong ref to the instance
-    private WeakReference<Context> contextRef;
-    private final Integer flavor;
-    private boolean isInEditMode;
-    private boolean debug;
-    private final boolean ignited;
+    // Publication model -- a Lazy is attained on one thread, pre-processed on whichever thread ignites its parent and may be
+    // get() from any other:
+    // - Everything is volatile, state bits are set by compare and swap so racing flags are never lost.
+    // - Pre-processing writes contextRef and the resolved binding before PRE_PROCESSED, and post-processing remembers the
+    //   instance before POST_PROCESSED, so a thread that sees a flag set also sees what it guards.
+    // - get() reads the volatile instance without locking. Only the first get() locks, on the Lazy itself, so two threads
+    //   racing get() on the same Lazy construct once and both return that instance.
+    //
+    // Layout -- a screen can hold thousands of Lazies, so a Lazy is kept to what is its own: the parent, the instance, the
+    // context and state bits. Everything about the binding is in a LazyBinding shared by every Lazy of that binding.
+    private static final int IGNITED = 1;
+    private static final int IN_EDIT_MODE = 1 << 1;
+    private static final int DEFERRED = 1 << 2; // pre-processed on first get() rather than at attain, see attainDeferred
+    private static final int WEAK_INSTANCE = 1 << 3; // instance is a WeakReference, see the constructor
+    private static final int DEBUG = 1 << 4;
+    private static final int PRE_PROCESSED = 1 << 5;
+    private static final int POST_PROCESSED = 1 << 6;
+    private static final int ON_FUELED_CALLED = 1 << 7;
+    private static final AtomicIntegerFieldUpdater<Lazy> STATE = AtomicIntegerFieldUpdater.newUpdater(Lazy.class, "state");
+
+    private volatile int state;
+    private volatile @NonNull LazyBinding binding; // unresolved until pre-processed
+    private volatile @Nullable WeakReference<Object> parentRef; // let go once resolved to a strong instance, nothing asks after that
+    private volatile Object instance; // T, or a WeakReference<T> when WEAK_INSTANCE
+    private volatile WeakReference<Context> contextRef; // shared per context, see FuelInjector#getContextRef(Context)
 
     private Lazy(@NonNull Object parent, @NonNull Class<T> type) {
-        this(parent, type, CacheKey.DEFAULT_FLAVOR, false);
+        this(parent, type, CacheKey.DEFAULT_FLAVOR, false, false, false);
     }
 
-    private Lazy(@NonNull Object parent, @NonNull Class<T> type, Integer flavor, boolean ignited) {
-        this.type = type;
-        this.useWeakInstance = this.useWeakInstance || FuelInjector.get().isContext(type); // don't override useWeakInstance if already true
-        this.flavor = flavor;
+    private Lazy(@NonNull Object parent, @NonNull Class<T> type, Integer flavor, boolean ignited, boolean isInEditMode, boolean deferred) {
+        this.binding = LazyBinding.of(type, flavor);
         parentRef = new WeakReference<>(parent);
-        this.ignited = ignited;
+        // weak when ignited because its expected that this parent is owned elsewhere, or when it's a context
+        boolean useWeakInstance = ignited || FuelInjector.get().isContext(type);
+        this.state = (ignited ? IGNITED : 0) | (isInEditMode ? IN_EDIT_MODE : 0) | (deferred ? DEFERRED : 0)
+                | (useWeakInstance ? WEAK_INSTANCE : 0);
+        if (!ignited) {
+            doThreadCheck(this);
+        }
     }
 
     /**
@@ -132,8 +209,10 @@ public final class Lazy<T> {
      * @return null indicates this lazy is not cacheable
      */
     @Nullable Scope toCacheScope() {
+        Scope scope = binding.scope;
         switch (scope) {
             case Application:
+            case Custom:
             case Activity:
             case ViewRoot:
                 return scope;
@@ -153,6 +232,8 @@ public final class Lazy<T> {
                 case Activity:
                     scopeObject = getContext();
                     break;
+                case Custom: // the current run of the scope, null when it's not active
+                    return FuelInjector.get().getActiveScope(binding.customScope);
                 case ViewRoot: // injection for ViewRootSingleton requested by a View
                     return findViewRoot();
             }
@@ -186,34 +267,113 @@ public final class Lazy<T> {
         return getContext();
     }
 
+    @NonNull CacheKey toCacheKey() {
+        LazyBinding binding = this.binding; // read once, it's volatile
+        return binding.cacheKey != null ? binding.cacheKey : CacheKey.attain(binding.leafType, binding.flavor);
+    }
+
     boolean isCacheable() {
         return toCacheScope() != null && toObjectScope() != null;
     }
 
     Lazy setDebug() {
-        this.debug = true;
+        setState(DEBUG);
         return this;
     }
 
-    void setLeafType(@NonNull Class<?> leafType) {
-        this.leafType = leafType;
+    private boolean hasState(int bit) {
+        return (state & bit) != 0;
+    }
+
+    /** @return false when the bit was already set */
+    private boolean setState(int bit) {
+        while (true) {
+            int state = this.state;
+            if ((state & bit) != 0) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, state, state | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Pre-processing is done, with the leaf type and scope it worked out.<br>
+     * The context must already be set, see the publication model.
+     */
+    void setPreProcessed(@NonNull Class<?> leafType, @NonNull Scope scope, @Nullable CustomScope customScope) {
+        this.binding = binding.resolve(leafType, scope, customScope);
+        setState(PRE_PROCESSED); // last
+    }
+
+    void setPostProcessed() {
+        setState(POST_PROCESSED);
+    }
+
+    /** @return true the first time only, ignite and get() may race to call onFueled */
+    boolean setOnFueledCalled() {
+        return setState(ON_FUELED_CALLED);
+    }
+
+    boolean isOnFueledCalled() {
+        return hasState(ON_FUELED_CALLED);
+    }
+
+    boolean isDeferred() {
+        return hasState(DEFERRED);
+    }
+
+    boolean isInEditMode() {
+        return hasState(IN_EDIT_MODE);
+    }
+
+    /** Null until pre-processed */
+    @Nullable Scope getScope() {
+        return binding.scope;
+    }
+
+    /** Null unless pre-processed into a {@link Scope#Custom} */
+    @Nullable CustomScope getCustomScope() {
+        return binding.customScope;
     }
 
+    /**
+     * Nothing asks for the parent once a Lazy holds a strong instance, so its WeakReference can go. One less for the GC to process.<br>
+     * Must be after post-processing, which still works out the scope object from the parent.
+     */
+    private void releaseParent() {
+        if (!hasState(WEAK_INSTANCE)) {
+            parentRef = null;
+        }
+    }
+
+
+    /** The context without the failure handling of {@link #getContext()}, null when there is none or it was collected */
+    @Nullable Context getContextIfPresent() {
+        WeakReference<Context> contextRef = this.contextRef; // read once, it's volatile
+        return contextRef == null ? null : contextRef.get();
+    }
 
     void setContext(@NonNull Context context) {
         this.contextRef = FuelInjector.get().getContextRef(context);
     }
 
+    /** @param contextRef as given by {@link FuelInjector#getContextRef(Context)}, shared by a batch of children */
+    void setContextRef(@NonNull WeakReference<Context> contextRef) {
+        this.contextRef = contextRef;
+    }
+
     static boolean isPostProcessed(Lazy lazy) {
         if (lazy != null) {
-            return lazy.postProcessed;
+            return lazy.hasState(POST_PROCESSED);
         }
         return false;
     }
 
     static boolean isPreProcessed(Lazy lazy) {
         if (lazy != null) {
-            return lazy.preProcessed;
+            return lazy.hasState(PRE_PROCESSED);
         }
         return false;
     }
@@ -223,10 +383,8 @@ public final class Lazy<T> {
     }
 
     public final @NonNull Context getContext() throws FuelUnableToObtainContextException {
-        Context context = null;
-        if (hasContext()) {
-            context = contextRef.get();
-        }
+        WeakReference<Context> contextRef = this.contextRef; // read once, it's volatile
+        Context context = contextRef == null ? null : contextRef.get();
         if (context == null) {
             if (!isPostProcessed(this)) {
                 throw FuelInjector.get().doFailure(this, new FuelUnableToObtainContextException("Never Ignited " + this));
@@ -262,7 +420,8 @@ public final class Lazy<T> {
      * The BaseType - the type that was requested, see {@link #getLeafType()}
      */
     public final @NonNull Class<T> getType() {
-        return type;
+        //noinspection unchecked
+        return (Class<T>) binding.type;
     }
 
     /**
@@ -270,7 +429,7 @@ public final class Lazy<T> {
      * Null until after the lazy has been post-processed (parent is context aware via parent-injection or ignite).
      */
     public final Class<?> getLeafType() {
-        return leafType;
+        return binding.leafType;
     }
 
     /**
@@ -298,33 +457,38 @@ public final class Lazy<T> {
      * @throws NullPointerException when the defining class has not yet been ignited
      */
     public boolean isSingleton() {
-        return FuelInjector.get().isSingleton(getLeafType());
+        LazyBinding binding = this.binding; // read once, it's volatile
+        return binding.isResolved() ? binding.singleton : FuelInjector.get().isSingleton(binding.leafType);
     }
 
     public final Integer getFlavor() {
-        return flavor;
+        return binding.flavor;
     }
 
     protected void setInstance(T instance) {
-        if (useWeakInstance) {
-            this.instanceRef = new WeakReference<>(instance);
+        if (hasState(WEAK_INSTANCE)) {
+            WeakReference<Object> parentRef = this.parentRef;
+            if (parentRef != null && parentRef.get() == instance) {
+                this.instance = parentRef; // ignited, the instance is the parent -- one WeakReference serves both
+            } else {
+                this.instance = new WeakReference<>(instance);
+            }
         } else {
             this.instance = instance;
         }
     }
 
     protected T getInstance() {
+        Object instance = this.instance; // read once, it's volatile
 
-        // We determined that it was unsuitable to keep a strong ref to the instance so lets refer to the instanceRef instead of instance
-        if (useWeakInstance) {
-            T weakInst = null;
-            if (instanceRef != null) {
-                weakInst = instanceRef.get();
-            }
-            return weakInst;
+        // We determined that it was unsuitable to keep a strong ref to the instance so lets refer to the weak instance instead
+        if (hasState(WEAK_INSTANCE)) {
+            //noinspection unchecked
+            return instance == null ? null : ((WeakReference<T>) instance).get();
         }
 
-        return this.instance;
+        //noinspection unchecked
+        return (T) instance;
     }
 
     /**
@@ -339,49 +503,119 @@ public final class Lazy<T> {
     }
 
 
+    /**
+     * Construct the instance the next time the main thread is idle rather than on the first {@link #get()}, for what a screen
+     * is likely to need but not in the frame that declares it. A {@link BackgroundInit} type is started on its background thread.<br>
+     * Queued against the scope of this lazy and cancelled when that ends, see {@link FuelModule#setIdleScheduler(IdleScheduler)}
+     * for when it runs. Without an idle scheduler this does nothing and the first get() constructs as always.
+     *
+     * @param priority higher are constructed first
+     * @return this, to chain off an attain
+     */
+    public final @NonNull Lazy<T> prefetch(int priority) {
+        if (getInstance() == null && FuelInjector.get().isInitialized()) {
+            FuelInjector.get().getRootModule().prefetch(this, priority);
+        }
+        return this;
+    }
+
+    /**
+     * @see #prefetch(int)
+     */
+    public final @NonNull Lazy<T> prefetch() {
+        return prefetch(0);
+    }
+
+    /**
+     * True when a {@link #get()} would not construct anything: the instance was obtained already, or it's a singleton waiting
+     * in the cache of its scope. Never constructs, see {@link #prefetch(int)}.
+     */
+    public final boolean isReady() {
+        if (getInstance() != null) {
+            return true;
+        }
+        if (!isPreProcessed(this) || getContextIfPresent() == null || !FuelInjector.get().isInitialized()) {
+            return false;
+        }
+        Object cached = FuelInjector.get().findModule(this).getCachedInstance(this);
+        if (cached == null) {
+            return false;
+        }
+        //noinspection unchecked
+        setCachedInstance((T) cached); // so the get() that follows doesn't look again
+        return true;
+    }
+
     /**
      * Get the instance associated with this type.<br>
      * Never Null
      */
+    @SuppressWarnings("deprecation") // Class.newInstance for edit mode, it rethrows what the constructor throws as-is
     protected final T getChecked() throws FuelInjectionException {
-        try {
-            if (getInstance() == null) {
+        T instance = getInstance();
+        if (instance != null) {
+            return instance;
+        }
+
+        if (!isInEditMode() && FuelInjector.get().isInitialized()) {
+            FuelInjector.get().findModule(this).configureOwnerOf(getType()); // before locking this lazy
+        }
+
+        synchronized (this) {
+            try {
+                instance = getInstance();
+                if (instance != null) {
+                    return instance; // another thread did the work while we were waiting
+                }
+
                 // convenience for views in edit mode
-                if (isInEditMode) {
-                    setInstance(type.newInstance());
-                    return getInstance();
+                if (isInEditMode()) {
+                    instance = getType().newInstance();
+                    setInstance(instance);
+                    return instance;
+                }
+
+                if (isDeferred() && !isPreProcessed(this)) {
+                    FuelInjector.get().doPreProcessDeferred(this);
                 }
 
                 getContext(); // blows up if context is null
 
-                T instance = FuelInjector.get().findModule(this).attainInstance(CacheKey.attain(this), this, true);
+                instance = FuelInjector.get().findModule(this).attainInstance(toCacheKey(), this, true);
                 if (instance == null) {
                     throw new FuelInjectionException("Unable to obtain instance: %s", this);
-                } else {
-                    setInstance(instance);
                 }
+                setInstance(instance);
+                releaseParent();
+                return instance;
+            } catch (FuelInjectionException e) {
+                throw e;
+            } catch (Exception e) {
+                if (hasState(DEBUG)) {
+                    FLog.leaveBreadCrumb("getChecked Exception %s", e.getMessage());
+                }
+                throw FuelInjector.get().doFailure(this, e);
             }
-        } catch (FuelInjectionException e) {
-            throw e;
-        } catch (Exception e) {
-            if (debug) {
-                FLog.leaveBreadCrumb("getChecked Exception %s", e.getMessage());
-            }
-            throw FuelInjector.get().doFailure(this, e);
         }
-        return getInstance();
     }
 
     /** Parent is held via WeakRef -- this will only be null of the parent was GC()'d */
     @Nullable Object getParent() {
-        return parentRef.get();
+        WeakReference<Object> parentRef = this.parentRef; // read once, it's volatile
+        return parentRef == null ? null : parentRef.get();
+    }
+
+    /** {@link #setInstance(Object)} for a resolved Lazy handed a cached instance, see FuelModule#attainInstances(List) */
+    void setCachedInstance(T instance) {
+        setInstance(instance);
+        releaseParent();
     }
 
     /**
      * @return true when FuelInjector is in Debug Mode and this Lazy was obtained via Lazy.attainDebug()
      */
     boolean isDebug() {
-        return debug && FuelInjector.get().isDebug();
+        return hasState(DEBUG) && FuelInjector.get().isDebug();
     }
 
     @Override
@@ -403,7 +637,7 @@ public final class Lazy<T> {
             return String.format("Lazy[type='%s', leafType='%s', flavor='%s', instance='%s', context='%s'",
                     getType().getSimpleName(),
                     (getLeafType() == null ? null : getLeafType().getSimpleName()),
-                    flavor,
+                    getFlavor(),
                     instanceStr,
                     contextStr
             );
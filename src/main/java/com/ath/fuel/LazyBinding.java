@@ -0,0 +1,121 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * What every {@link Lazy} of one binding has in common, shared by all of them rather than repeated in each.<br>
+ * A Lazy starts out with the unresolved descriptor for its type and flavor, {@link #of(Class, Integer)}, and pre-processing
+ * moves it on to the resolved one for its leaf type and scope, {@link #resolve(Class, Scope, CustomScope)}. Both are interned,
+ * so the thousands of Lazies of a screen point at a handful of descriptors.<br>
+ * <br>
+ * Immutable apart from the list of resolved variants an unresolved descriptor keeps, which is copied on write.
+ * <br>
+ * The interned descriptors are never dropped, on purpose: they are keyed on the app's own injectable types and flavors, a
+ * bounded set, and on Android those classes stay loaded for the life of the process anyway.
+ */
+final class LazyBinding {
+
+    private static final ConcurrentMap<Class<?>, LazyBinding> defaultFlavor = new ConcurrentHashMap<>(); // the common case, no key to allocate
+    private static final ConcurrentMap<CacheKey, LazyBinding> flavored = new ConcurrentHashMap<>();
+
+    final @NonNull Class<?> type; // the type requested, but not necessarily the type to be instantiated
+    final @Nullable Integer flavor;
+    final @Nullable Class<?> leafType; // the type to be instantiated, null until resolved
+    final @Nullable Scope scope; // null until resolved
+    final @Nullable CustomScope customScope; // when scope is Custom
+    final @Nullable CacheKey cacheKey; // leafType and flavor, null until resolved
+    final boolean singleton;
+    private final @NonNull LazyBinding unresolved; // itself when unresolved
+    private volatile @NonNull LazyBinding[] resolved = new LazyBinding[0]; // only used on unresolved ones, variants are few
+
+    private LazyBinding(@NonNull Class<?> type, @Nullable Integer flavor) {
+        this.type = type;
+        this.flavor = flavor;
+        this.leafType = null;
+        this.scope = null;
+        this.customScope = null;
+        this.cacheKey = null;
+        this.singleton = false;
+        this.unresolved = this;
+    }
+
+    private LazyBinding(@NonNull LazyBinding unresolved, @NonNull Class<?> leafType, @NonNull Scope scope, @Nullable CustomScope customScope) {
+        this.type = unresolved.type;
+        this.flavor = unresolved.flavor;
+        this.leafType = leafType;
+        this.scope = scope;
+        this.customScope = customScope;
+        this.cacheKey = CacheKey.attain(leafType, flavor);
+        this.singleton = FuelInjector.get().isSingleton(leafType);
+        this.unresolved = unresolved;
+    }
+
+    static @NonNull LazyBinding of(@NonNull Class<?> type, @Nullable Integer flavor) {
+        if (flavor == null) {
+            LazyBinding binding = defaultFlavor.get(type);
+            if (binding == null) {
+                binding = new LazyBinding(type, null);
+                LazyBinding raced = defaultFlavor.putIfAbsent(type, binding);
+                if (raced != null) {
+                    binding = raced;
+                }
+            }
+            return binding;
+        }
+
+        CacheKey key = CacheKey.attain(type, flavor);
+        LazyBinding binding = flavored.get(key);
+        if (binding == null) {
+            binding = new LazyBinding(type, flavor);
+            LazyBinding raced = flavored.putIfAbsent(key, binding);
+            if (raced != null) {
+                binding = raced;
+            }
+        }
+        return binding;
+    }
+
+    boolean isResolved() {
+        return leafType != null;
+    }
+
+    /**
+     * The descriptor of this type and flavor once resolved to the given leaf type and scope.<br>
+     * The leaf type can change with a late binding, see FuelModule.Bindings, which only makes for another variant.
+     */
+    @NonNull LazyBinding resolve(@NonNull Class<?> leafType, @NonNull Scope scope, @Nullable CustomScope customScope) {
+        if (unresolved != this) {
+            return unresolved.resolve(leafType, scope, customScope);
+        }
+        LazyBinding binding = find(resolved, leafType, scope, customScope);
+        if (binding != null) {
+            return binding;
+        }
+        synchronized (this) {
+            LazyBinding[] resolved = this.resolved;
+            binding = find(resolved, leafType, scope, customScope);
+            if (binding == null) {
+                binding = new LazyBinding(this, leafType, scope, customScope);
+                LazyBinding[] grown = new LazyBinding[resolved.length + 1];
+                System.arraycopy(resolved, 0, grown, 0, resolved.length);
+                grown[resolved.length] = binding;
+                this.resolved = grown;
+            }
+            return binding;
+        }
+    }
+
+    private static @Nullable LazyBinding find(@NonNull LazyBinding[] resolved, @NonNull Class<?> leafType, @NonNull Scope scope,
+                                              @Nullable CustomScope customScope) {
+        for (LazyBinding binding : resolved) {
+            if (binding.leafType == leafType && binding.scope == scope && binding.customScope == customScope) {
+                return binding;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ath.fuel;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Runs tasks when the main thread's message queue is idle, between frames rather than inside them.
+ */
+public final class MainThreadIdleScheduler implements IdleScheduler {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override public void scheduleIdle(@NonNull final Runnable task) {
+        handler.post(new Runnable() { // idle handlers belong to the queue of the thread that adds them
+            @Override public void run() {
+                Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                    @Override public boolean queueIdle() {
+                        task.run();
+                        return false; // once
+                    }
+                });
+            }
+        });
+    }
+
+    @Override public boolean isSchedulerThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+}
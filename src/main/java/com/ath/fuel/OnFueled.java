@@ -3,7 +3,8 @@ package com.ath.fuel;
 import androidx.annotation.MainThread;
 
 /**
- * Implement this interface to receive a callback immediately after fuel injections have completed.
+ * Implement this interface to receive a callback immediately after fuel injections have completed.<br>
+ * Or once the main thread is idle, see {@link DeferOnFueled}.
  */
 public interface OnFueled {
 
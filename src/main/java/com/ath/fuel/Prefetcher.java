@@ -0,0 +1,165 @@
+package com.ath.fuel;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The lazies marked with {@link Lazy#prefetch(int)}, queued per scope object and constructed when the {@link IdleScheduler}
+ * says so, highest priority first and in the order they came in otherwise.<br>
+ * Drained in slices of {@link #SLICE_MILLIS}, a construction that runs over finishes and the rest waits for the next idle.<br>
+ * The queue of a scope is cancelled when the scope ends, see {@link #cancel(Object)}, and goes with the scope object when
+ * that's collected first.
+ */
+final class Prefetcher {
+
+    static final long SLICE_MILLIS = 4;
+
+    private static final class Entry implements Comparable<Entry> {
+        final @NonNull Lazy<?> lazy;
+        final int priority;
+        final long seq;
+
+        Entry(@NonNull Lazy<?> lazy, int priority, long seq) {
+            this.lazy = lazy;
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override public int compareTo(@NonNull Entry other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return seq < other.seq ? -1 : (seq == other.seq ? 0 : 1);
+        }
+    }
+
+    // scope object -> its prefetches, guarded by this. Entries hold the lazy which holds its context and parent weakly
+    private final @NonNull Map<Object, PriorityQueue<Entry>> queues = new WeakHashMap<>();
+    private final @NonNull AtomicBoolean scheduled = new AtomicBoolean();
+    private long seq = 0;
+
+    /**
+     * @param scopeObject what the lazy's scope ends with, the queue is cancelled along with it
+     * @return false when it was already queued
+     */
+    boolean prefetch(@NonNull Lazy<?> lazy, int priority, @NonNull Object scopeObject, @NonNull IdleScheduler scheduler) {
+        synchronized (this) {
+            PriorityQueue<Entry> queue = queues.get(scopeObject);
+            if (queue == null) {
+                queue = new PriorityQueue<>();
+                queues.put(scopeObject, queue);
+            }
+            for (Entry entry : queue) {
+                if (entry.lazy == lazy) {
+                    return false;
+                }
+            }
+            queue.add(new Entry(lazy, priority, seq++));
+        }
+        schedule(scheduler);
+        return true;
+    }
+
+    /**
+     * Drop what is queued for the given scope object, and for the lazies of the given Context.
+     *
+     * @return how many prefetches were cancelled
+     */
+    synchronized int cancel(@NonNull Object scopeObject) {
+        int cancelled = 0;
+        PriorityQueue<Entry> queue = queues.remove(scopeObject);
+        if (queue != null) {
+            cancelled += queue.size();
+        }
+        if (scopeObject instanceof Context) { // the non-singletons and ViewRootSingletons of an Activity are queued elsewhere
+            for (PriorityQueue<Entry> other : queues.values()) {
+                for (Iterator<Entry> it = other.iterator(); it.hasNext(); ) {
+                    Lazy<?> lazy = it.next().lazy;
+                    if (lazy.getContextIfPresent() == scopeObject) {
+                        it.remove();
+                        cancelled++;
+                    }
+                }
+            }
+        }
+        return cancelled;
+    }
+
+    /** @return how many prefetches are waiting, across scopes */
+    synchronized int size() {
+        int size = 0;
+        for (PriorityQueue<Entry> queue : queues.values()) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    private void schedule(@NonNull final IdleScheduler scheduler) {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.scheduleIdle(new Runnable() {
+                @Override public void run() {
+                    scheduled.set(false); // before draining, so what's prefetched meanwhile schedules another slice
+                    drain(TimeUnit.MILLISECONDS.toNanos(SLICE_MILLIS));
+                    if (size() > 0) {
+                        schedule(scheduler);
+                    }
+                }
+            });
+        }
+    }
+
+    private void drain(long sliceNanos) {
+        long start = System.nanoTime();
+        Entry entry;
+        while ((entry = poll()) != null) {
+            dispatch(entry.lazy);
+            if (System.nanoTime() - start >= sliceNanos) {
+                return;
+            }
+        }
+    }
+
+    /** The head of highest priority across scopes, there are rarely more than a couple */
+    private synchronized @Nullable Entry poll() {
+        PriorityQueue<Entry> best = null;
+        for (Iterator<PriorityQueue<Entry>> it = queues.values().iterator(); it.hasNext(); ) {
+            PriorityQueue<Entry> queue = it.next();
+            Entry head = queue.peek();
+            if (head == null) {
+                it.remove();
+            } else if (best == null || head.compareTo(best.peek()) < 0) {
+                best = queue;
+            }
+        }
+        return best == null ? null : best.poll();
+    }
+
+    private static void dispatch(@NonNull Lazy<?> lazy) {
+        if (lazy.getInstance() != null) {
+            return; // got meanwhile
+        }
+        boolean preProcessed = Lazy.isPreProcessed(lazy);
+        if (!preProcessed && !lazy.isDeferred()) {
+            return; // its parent was never ignited, the get() will say so
+        }
+        try {
+            FuelInjector injector = FuelInjector.get();
+            if (preProcessed && injector.isBackgroundInit(lazy.getLeafType()) && injector.inMainThread()) { // joining would block the idle
+                injector.getRootModule().getBackgroundInitializer().start(lazy.getContext(), lazy.getType(), lazy.getFlavor());
+                return;
+            }
+            lazy.get();
+        } catch (Exception e) {
+            FLog.w("Prefetch of %s failed, left to its get(): %s", lazy, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.ath.fuel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in persisted resolution table, so a cold start doesn't rediscover what the previous one already worked out.<br>
+ * <br>
+ * Holds what {@link FuelModule#toLeafType(Class, Integer)} resolved every type to and the constructor
+ * {@link FuelModule#REFLECTIVE_PROVIDER} settled on for every leaf type, under a hash of the binding set and the given version.
+ * At {@link FuelInjector#ignite(Application, FuelModule)} the file is memory-mapped and checked against the hash of the
+ * bindings just configured; a snapshot of another binding set or version is discarded and everything is rediscovered.
+ * Entries are applied on first use, nothing is class loaded up front.<br>
+ * {@link #getWriteAfterMillis()} after ignite what was used and learned is written back, so the snapshot follows the app.<br>
+ * <br>
+ * NOTE:<br>
+ * The version must change whenever the classes can, ex: the app's versionCode, a constructor added in a new build is
+ * otherwise never considered. Leaf types are only taken from the snapshot once no lazy submodule is waiting to be configured,
+ * and a late bind or addModule after ignite retires the snapshot for the rest of the run.<br>
+ * <br>
+ * Enable with {@link FuelModule#setResolutionSnapshot(ResolutionSnapshot)} before ignite.
+ */
+public final class ResolutionSnapshot {
+
+    private static final String HEADER = "fuel-resolution-snapshot 1";
+    private static final String LEAF_TYPE = "L";
+    private static final String CONSTRUCTOR = "C";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final @NonNull File file;
+    private final @NonNull String version;
+    private final long writeAfterMillis;
+    private volatile @NonNull Map<String, String> leafTypes = Collections.emptyMap(); // loaded, type -> leaf type
+    private volatile @NonNull Map<String, String> constructors = Collections.emptyMap(); // loaded, leaf type -> parameter types
+    private final @NonNull Map<String, String> learnedLeafTypes = new ConcurrentHashMap<>();
+    private final @NonNull Map<String, String> learnedConstructors = new ConcurrentHashMap<>();
+    private volatile @Nullable String hash; // of the binding set at ignite, null until then
+    private volatile boolean stale = false; // the bindings changed since ignite, neither used nor recorded from then on
+    private volatile Thread thread;
+
+    /**
+     * @param file             where the snapshot is kept, ex: new File(app.getNoBackupFilesDir(), "fuel_resolution_snapshot")
+     * @param version          changes whenever the app's classes can, ex: its versionCode
+     * @param writeAfterMillis how long after ignite to write what was learned
+     */
+    public ResolutionSnapshot(@NonNull File file, @NonNull String version, long writeAfterMillis) {
+        if (writeAfterMillis < 1) {
+            throw new IllegalArgumentException("writeAfterMillis must be at least 1 but was " + writeAfterMillis);
+        }
+        this.file = file;
+        this.version = version;
+        this.writeAfterMillis = writeAfterMillis;
+    }
+
+    public long getWriteAfterMillis() {
+        return writeAfterMillis;
+    }
+
+    /** True when the file matched the binding set at ignite and is in use */
+    public boolean isLoaded() {
+        return !leafTypes.isEmpty() || !constructors.isEmpty();
+    }
+
+    /**
+     * Load the snapshot of the given binding set and write it back later.<br>
+     * Called once the root module is configured.
+     *
+     * @param bindings every binding of the root module, one line each, see {@link FuelModule#describeBindings()}
+     */
+    void start(@NonNull List<String> bindings) {
+        synchronized (this) {
+            if (thread != null) {
+                return;
+            }
+            hash = hash(bindings, version);
+            load();
+            thread = new Thread(new Runnable() {
+                @Override public void run() {
+                    try {
+                        Thread.sleep(writeAfterMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    write();
+                }
+            }, "FuelResolutionSnapshot");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /** The bindings changed after ignite, what is resolved from here on may not hold next start */
+    void onBindingsChanged() {
+        if (hash != null && !stale) {
+            stale = true;
+            leafTypes = Collections.emptyMap();
+            constructors = Collections.emptyMap();
+        }
+    }
+
+    /** @return the leaf type the snapshot has for type, null when it has none or it no longer loads */
+    @Nullable Class<?> getLeafType(@NonNull Class<?> type) {
+        String leafType = leafTypes.get(type.getName());
+        if (leafType == null) {
+            return null;
+        }
+        Class<?> leaf = load(leafType, type.getClassLoader());
+        if (leaf == null || !type.isAssignableFrom(leaf)) {
+            return null;
+        }
+        learnedLeafTypes.put(type.getName(), leafType);
+        return leaf;
+    }
+
+    void recordLeafType(@NonNull Class<?> type, @NonNull Class<?> leafType) {
+        if (hash != null && !stale) {
+            learnedLeafTypes.put(type.getName(), leafType.getName());
+        }
+    }
+
+    /** @return the parameter types of the constructor the snapshot has for leafType, empty for the empty one, null when none */
+    @Nullable Class<?>[] getConstructorParameterTypes(@NonNull Class<?> leafType) {
+        String parameterTypes = constructors.get(leafType.getName());
+        if (parameterTypes == null) {
+            return null;
+        }
+        String[] names = parameterTypes.isEmpty() ? new String[0] : parameterTypes.split(",");
+        Class<?>[] types = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            types[i] = load(names[i], leafType.getClassLoader());
+            if (types[i] == null) {
+                return null;
+            }
+        }
+        learnedConstructors.put(leafType.getName(), parameterTypes);
+        return types;
+    }
+
+    void recordConstructor(@NonNull Class<?> leafType, @NonNull Class<?>[] parameterTypes) {
+        if (hash == null || stale) {
+            return;
+        }
+        StringBuilder names = new StringBuilder();
+        for (Class<?> parameterType : parameterTypes) {
+            if (names.length() > 0) {
+                names.append(',');
+            }
+            names.append(parameterType.getName());
+        }
+        learnedConstructors.put(leafType.getName(), names.toString());
+    }
+
+    private static @Nullable Class<?> load(@NonNull String name, @Nullable ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader != null ? loader : ResolutionSnapshot.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null; // gone since the snapshot, rediscovered
+        }
+    }
+
+    /** Memory-mapped, a snapshot of another binding set or version is left for {@link #write()} to replace */
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        Map<String, String> leafTypes = new HashMap<>();
+        Map<String, String> constructors = new HashMap<>();
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CharBuffer chars = UTF_8.decode(mapped);
+            String[] lines = chars.toString().split("\n");
+            if (lines.length == 0 || !(HEADER + "\t" + hash).equals(lines[0])) {
+                return; // another binding set, version or format
+            }
+            for (int i = 1; i < lines.length; i++) {
+                String[] fields = lines[i].split("\t", -1);
+                if (fields.length != 3) {
+                    continue;
+                }
+                if (LEAF_TYPE.equals(fields[0])) {
+                    leafTypes.put(fields[1], fields[2]);
+                } else if (CONSTRUCTOR.equals(fields[0])) {
+                    constructors.put(fields[1], fields[2]);
+                }
+            }
+        } catch (Exception e) {
+            FLog.w("ResolutionSnapshot unable to read %s: %s", file, e.getMessage());
+            return;
+        }
+        this.leafTypes = leafTypes;
+        this.constructors = constructors;
+    }
+
+    /**
+     * What this run used and learned, written to a temp file and renamed over the old one so a crash mid-write never leaves
+     * half a snapshot. Nothing is written once the bindings changed after ignite.
+     */
+    void write() {
+        String hash = this.hash;
+        if (hash == null || stale) {
+            return;
+        }
+        Map<String, String> leafTypes = new HashMap<>(this.leafTypes); // loaded but unused this run still holds
+        leafTypes.putAll(learnedLeafTypes);
+        Map<String, String> constructors = new HashMap<>(this.constructors);
+        constructors.putAll(learnedConstructors);
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), UTF_8))) {
+            writer.write(HEADER + "\t" + hash + "\n");
+            for (Map.Entry<String, String> entry : leafTypes.entrySet()) {
+                writer.write(LEAF_TYPE + "\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+            }
+            for (Map.Entry<String, String> entry : constructors.entrySet()) {
+                writer.write(CONSTRUCTOR + "\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+            }
+        } catch (IOException e) {
+            FLog.w("ResolutionSnapshot unable to write %s: %s", file, e.getMessage());
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            FLog.w("ResolutionSnapshot unable to replace %s", file);
+        }
+    }
+
+    /** The binding set is hashed sorted, configure order doesn't matter */
+    static @NonNull String hash(@NonNull List<String> bindings, @NonNull String version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(version.getBytes(UTF_8));
+            List<String> sorted = new ArrayList<>(bindings);
+            Collections.sort(sorted);
+            for (String binding : sorted) {
+                digest.update((byte) '\n');
+                digest.update(binding.getBytes(UTF_8));
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e); // every platform has SHA-1
+        }
+    }
+}
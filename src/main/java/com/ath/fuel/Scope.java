@@ -5,10 +5,11 @@ package com.ath.fuel;
  */
 public enum Scope {
     Application(1), // Lives for the duration of the app and has visibility to Activity or finer scope.
-    Activity(2), // Lives for the duration of the Activity and has visibility to Activity and Application scope.
-    ViewRoot(3), // Lives for the duration of the View in the view tree annotated with @ViewRoot
+    Custom(2), // Lives from begin to end of a user defined CustomScope, spanning Activities. See CustomScope#canAccess for custom to custom.
+    Activity(3), // Lives for the duration of the Activity and has visibility to Custom and Application scope.
+    ViewRoot(4), // Lives for the duration of the View in the view tree annotated with @ViewRoot
     Object(Integer.MAX_VALUE),  // Lives as long as object is alive and has no visibility to any of the above scopes.
-    // TODO: if you add a new scope, consider FuelInjector.toCacheScope( scope )
+    // TODO: if you add a new scope, consider Lazy.toCacheScope() and Lazy.toObjectScope()
     ;
 
     private int mScopeValue = 0;
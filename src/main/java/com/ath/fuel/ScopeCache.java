@@ -0,0 +1,254 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Scope -> ScopeObject -> CacheKey -> instance<br>
+ * - Scope is Application, Activity, ViewRoot, etc<br>
+ * - ScopeObject would be the context, or the view root, paired to the scope -- held weakly, when it goes so does its cache<br>
+ * - CacheKey describes the instance we're looking for<br>
+ * - instance the hidden treasure<br>
+ * <br>
+ * One per {@link FuelModule}, which works out the cache scope and scope object from the Lazy and hands them in.<br>
+ * <br>
+ * Readers share the read lock, so nothing a read touches may change structure on a read: the scope objects are weak keys of a
+ * ConcurrentHashMap, matched by identity, and the keys of collected scope objects are removed under the write lock only.
+ * A WeakHashMap would not do, its get() and iterators remove collected keys and two readers would race on that.
+ */
+final class ScopeCache {
+
+    /** A scope object held weakly, equal to another key of the same scope object while it's alive */
+    private static final class WeakKey extends WeakReference<Object> {
+        private final int hash;
+
+        WeakKey(@NonNull Object scopeObject, @NonNull ReferenceQueue<Object> queue) {
+            super(scopeObject, queue);
+            this.hash = System.identityHashCode(scopeObject);
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+
+        @Override public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            Object scopeObject = get();
+            if (scopeObject == null) {
+                return false; // collected, only itself
+            } else if (obj instanceof WeakKey) {
+                return scopeObject == ((WeakKey) obj).get();
+            }
+            return obj instanceof LookupKey && scopeObject == ((LookupKey) obj).scopeObject;
+        }
+    }
+
+    /** What a read looks a scope object up with, no reference to enqueue and nothing for the GC to process */
+    private static final class LookupKey {
+        private final @NonNull Object scopeObject;
+
+        LookupKey(@NonNull Object scopeObject) {
+            this.scopeObject = scopeObject;
+        }
+
+        @Override public int hashCode() {
+            return System.identityHashCode(scopeObject);
+        }
+
+        @Override public boolean equals(Object obj) {
+            return obj instanceof WeakKey ? obj.equals(this) : obj instanceof LookupKey && scopeObject == ((LookupKey) obj).scopeObject;
+        }
+    }
+
+    private final ReentrantReadWriteLock cacheLock = new ReentrantReadWriteLock(); // guards the CacheKey -> instance maps
+    private final Map<Scope, Map<Object, Map<CacheKey, Object>>> scopeCache = new EnumMap<>(Scope.class); // never changes once built
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    ScopeCache() {
+        for (Scope scope : Scope.values()) {
+            scopeCache.put(scope, new ConcurrentHashMap<Object, Map<CacheKey, Object>>());
+        }
+    }
+
+    /** Drop the caches of collected scope objects, under the write lock */
+    private void expungeNotThreadSafe() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            for (Map<Object, Map<CacheKey, Object>> cache : scopeCache.values()) {
+                cache.remove(ref); // only equal to itself now
+            }
+        }
+    }
+
+    /**
+     * @param primeTheCacheEntry if true, an empty entry will be added for this scope object if not already present, false leaves it alone and
+     *                           returns empty
+     * @return an "immutable" map when primeTheCachEntry = false :/ meh
+     */
+    private @NonNull Map<CacheKey, Object> getCacheByScopeObjectNotThreadSafe(@NonNull Scope cacheScope, @NonNull Object scopeObject,
+                                                                             boolean primeTheCacheEntry) {
+        Map<Object, Map<CacheKey, Object>> cache = scopeCache.get(cacheScope);
+        Map<CacheKey, Object> scopeObjectCache = cache.get(new LookupKey(scopeObject));
+        if (scopeObjectCache == null && primeTheCacheEntry) { // under the write lock
+            expungeNotThreadSafe();
+            scopeObjectCache = new HashMap<>();
+            cache.put(new WeakKey(scopeObject, collected), scopeObjectCache);
+        }
+
+        if (scopeObjectCache == null) {
+            scopeObjectCache = Collections.emptyMap();
+        }
+        return scopeObjectCache;
+    }
+
+    @Nullable Object get(@NonNull Scope cacheScope, @NonNull Object scopeObject, @NonNull CacheKey key) {
+        Lock lock = cacheLock.readLock();
+        try {
+            lock.lock();
+            return getCacheByScopeObjectNotThreadSafe(cacheScope, scopeObject, false).get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Many look-ups under one read lock, entry i is looked up by cacheScopes[i], scopeObjects[i] and keys[i].
+     *
+     * @param keys a null key is skipped and gives a null result
+     * @return what was found for each entry, null when it was not cached
+     */
+    @NonNull Object[] getAll(@NonNull Scope[] cacheScopes, @NonNull Object[] scopeObjects, @NonNull CacheKey[] keys) {
+        Object[] out = new Object[keys.length];
+        Lock lock = cacheLock.readLock();
+        try {
+            lock.lock();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    out[i] = getCacheByScopeObjectNotThreadSafe(cacheScopes[i], scopeObjects[i], false).get(keys[i]);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return out;
+    }
+
+    /**
+     * @param value instance not lazy, cannot be null
+     */
+    void put(@NonNull Scope cacheScope, @NonNull Object scopeObject, @NonNull CacheKey key, @NonNull Object value) {
+        Lock lock = cacheLock.writeLock();
+        try {
+            lock.lock();
+            getCacheByScopeObjectNotThreadSafe(cacheScope, scopeObject, true).put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop everything cached against the given scope object in one step.
+     *
+     * @return how many instances were released
+     */
+    int remove(@NonNull Scope cacheScope, @NonNull Object scopeObject) {
+        Map<CacheKey, Object> scopeObjectCache = detach(cacheScope, scopeObject);
+        return scopeObjectCache == null ? 0 : scopeObjectCache.size();
+    }
+
+    /**
+     * Take everything cached against the given scope object out of the cache, to hand it to another with {@link #adopt}.
+     *
+     * @return what was cached, null when nothing was
+     */
+    @Nullable Map<CacheKey, Object> detach(@NonNull Scope cacheScope, @NonNull Object scopeObject) {
+        Lock lock = cacheLock.writeLock();
+        try {
+            lock.lock();
+            expungeNotThreadSafe();
+            return scopeCache.get(cacheScope).remove(new LookupKey(scopeObject));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache what was detached from another scope object against this one.<br>
+     * Whatever this scope object already has cached is kept over what is adopted.
+     *
+     * @return how many instances were adopted
+     */
+    int adopt(@NonNull Scope cacheScope, @NonNull Object scopeObject, @NonNull Map<CacheKey, Object> detached) {
+        int adopted = 0;
+        Lock lock = cacheLock.writeLock();
+        try {
+            lock.lock();
+            Map<CacheKey, Object> scopeObjectCache = getCacheByScopeObjectNotThreadSafe(cacheScope, scopeObject, true);
+            for (Map.Entry<CacheKey, Object> entry : detached.entrySet()) {
+                if (!scopeObjectCache.containsKey(entry.getKey())) {
+                    scopeObjectCache.put(entry.getKey(), entry.getValue());
+                    adopted++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return adopted;
+    }
+
+    /**
+     * @return the keys cached against the given scope object, empty when there are none
+     */
+    @NonNull List<CacheKey> getKeys(@NonNull Scope cacheScope, @NonNull Object scopeObject) {
+        Lock lock = cacheLock.readLock();
+        try {
+            lock.lock();
+            return new ArrayList<>(getCacheByScopeObjectNotThreadSafe(cacheScope, scopeObject, false).keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shallow copy of Scope -> ScopeObject -> CacheKey -> instance.<br>
+     * Only references are copied while the read lock is held so writers wait as little as possible.
+     */
+    @NonNull Map<Scope, Map<Object, Map<CacheKey, Object>>> copy() {
+        Map<Scope, Map<Object, Map<CacheKey, Object>>> out = new HashMap<>();
+        Lock lock = cacheLock.readLock();
+        try {
+            lock.lock();
+            for (Map.Entry<Scope, Map<Object, Map<CacheKey, Object>>> scopeEntry : scopeCache.entrySet()) {
+                if (scopeEntry.getValue().isEmpty()) {
+                    continue;
+                }
+                Map<Object, Map<CacheKey, Object>> scopeObjects = new HashMap<>();
+                for (Map.Entry<Object, Map<CacheKey, Object>> scopeObjectEntry : scopeEntry.getValue().entrySet()) {
+                    Object scopeObject = ((WeakKey) scopeObjectEntry.getKey()).get();
+                    if (scopeObject != null) {
+                        scopeObjects.put(scopeObject, new HashMap<>(scopeObjectEntry.getValue()));
+                    }
+                }
+                out.put(scopeEntry.getKey(), scopeObjects);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return out;
+    }
+}
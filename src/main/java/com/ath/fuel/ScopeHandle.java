@@ -0,0 +1,44 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * One run of a {@link CustomScope}, from {@link FuelInjector#beginScope(CustomScope)} to {@link #end()}.<br>
+ * Its {@link ScopedSingleton}s are cached against the handle and all released in one step when it ends.<br>
+ * <br>
+ * NOTE:<br>
+ * A Lazy that was resolved during the run keeps its instance after the run ends, the same as an Activity's Lazies outliving it would.
+ * Attain again after the next begin.
+ */
+public final class ScopeHandle {
+    private final @NonNull CustomScope scope;
+    private volatile boolean active = true;
+
+    ScopeHandle(@NonNull CustomScope scope) {
+        this.scope = scope;
+    }
+
+    public @NonNull CustomScope getScope() {
+        return scope;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * End this run and any nested scopes begun under it, releasing their instances.<br>
+     * Ending more than once is a no-op.
+     */
+    public void end() {
+        FuelInjector.get().endScope(this);
+    }
+
+    void deactivate() {
+        active = false;
+    }
+
+    @Override public @NonNull String toString() {
+        return "ScopeHandle[" + scope.getKey().getSimpleName() + ", " + (active ? "active" : "ended") + "]";
+    }
+}
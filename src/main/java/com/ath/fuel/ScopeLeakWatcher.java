@@ -0,0 +1,202 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.err.FuelScopeLeakException;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Opt-in watcher for scope objects that outlive their scope.<br>
+ * <br>
+ * The {@link ScopeCache} holds each Activity or ViewRoot weakly, as an identity key of a ConcurrentHashMap behind a read/write
+ * lock, and drops its cache only once it is collected. So if an Activity leaks, every ActivitySingleton cached against it leaks
+ * too and nothing complains. Once an Activity is destroyed or a ViewRoot is detached, Fuel hands it to
+ * this watcher which holds it weakly. If it is still reachable after {@link #getGcThreshold()} garbage collections it is
+ * reported along with the {@link CacheKey}s cached against it.<br>
+ * <br>
+ * Reported via {@link OnScopeLeakListener} when set, otherwise via {@link FuelModule#onFailure(Lazy, com.ath.fuel.err.FuelInjectionException)}
+ * with a {@link FuelScopeLeakException}.<br>
+ * <br>
+ * Enable with {@link FuelModule#setScopeLeakWatcher(ScopeLeakWatcher)}.
+ */
+public final class ScopeLeakWatcher {
+
+    public interface OnScopeLeakListener {
+        /**
+         * Called from the watcher thread.
+         *
+         * @param scopeObject the leaked Activity or ViewRoot
+         * @param scope       the scope it was serving
+         * @param keys        what was still cached against it
+         */
+        void onScopeLeaked(@NonNull Object scopeObject, @NonNull Scope scope, @NonNull List<CacheKey> keys);
+    }
+
+    private static final class WatchedRef extends WeakReference<Object> {
+        final @NonNull Scope scope;
+        final @NonNull String description;
+        final int gcCountAtWatch;
+
+        WatchedRef(@NonNull Object scopeObject, @NonNull Scope scope, @NonNull ReferenceQueue<Object> queue, int gcCountAtWatch) {
+            super(scopeObject, queue);
+            this.scope = scope;
+            this.description = InjectionGraph.describe(scopeObject);
+            this.gcCountAtWatch = gcCountAtWatch;
+        }
+    }
+
+    private static final long POLL_MILLIS = 1000;
+
+    private final int gcThreshold;
+    private final @NonNull ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final @NonNull List<WatchedRef> watched = new LinkedList<>(); // guarded by itself
+    private volatile @Nullable OnScopeLeakListener listener;
+    private @NonNull WeakReference<Object> gcSentinel = new WeakReference<>(new Object()); // cleared once per GC
+    private int gcCount = 0; // only touched by the watcher thread, read under watched
+    private Thread thread;
+
+    /**
+     * @param gcThreshold how many garbage collections a destroyed scope object may survive before it is reported
+     */
+    public ScopeLeakWatcher(int gcThreshold) {
+        if (gcThreshold < 1) {
+            throw new IllegalArgumentException("gcThreshold must be at least 1 but was " + gcThreshold);
+        }
+        this.gcThreshold = gcThreshold;
+    }
+
+    public int getGcThreshold() {
+        return gcThreshold;
+    }
+
+    public void setListener(@Nullable OnScopeLeakListener listener) {
+        this.listener = listener;
+    }
+
+    /** How many scope objects are ended but not yet collected */
+    public int getWatchedCount() {
+        synchronized (watched) {
+            return watched.size();
+        }
+    }
+
+    /**
+     * Start watching a scope object whose scope has ended.<br>
+     * Watching an object that is already watched is a no-op.
+     */
+    void watch(@NonNull Object scopeObject, @NonNull Scope scope) {
+        synchronized (watched) {
+            for (WatchedRef ref : watched) {
+                if (ref.get() == scopeObject) {
+                    return;
+                }
+            }
+            watched.add(new WatchedRef(scopeObject, scope, queue, gcCount));
+            if (thread == null) {
+                thread = new Thread(new Runnable() {
+                    @Override public void run() {
+                        watchLoop();
+                    }
+                }, "FuelScopeLeakWatcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Stop watching a scope object that came back to life legitimately, ex: a ViewRoot re-attached to the window.
+     */
+    void unwatch(@NonNull Object scopeObject) {
+        synchronized (watched) {
+            Iterator<WatchedRef> iterator = watched.iterator();
+            while (iterator.hasNext()) {
+                WatchedRef ref = iterator.next();
+                if (ref.get() == scopeObject) {
+                    ref.clear();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void watchLoop() {
+        //noinspection InfiniteLoopStatement -- daemon
+        while (true) {
+            try {
+                // collected -- not leaked, forget about them
+                WatchedRef collected = (WatchedRef) queue.remove(POLL_MILLIS);
+                while (collected != null) {
+                    synchronized (watched) {
+                        watched.remove(collected);
+                    }
+                    collected = (WatchedRef) queue.poll();
+                }
+
+                if (gcSentinel.get() == null) {
+                    gcSentinel = new WeakReference<>(new Object());
+                    findLeaks();
+                }
+            } catch (InterruptedException e) {
+                FLog.e(e);
+            } catch (Exception e) {
+                FLog.e(e, "ScopeLeakWatcher failure");
+            }
+        }
+    }
+
+    private void findLeaks() {
+        List<WatchedRef> leaked = new ArrayList<>();
+        synchronized (watched) {
+            gcCount++;
+            Iterator<WatchedRef> iterator = watched.iterator();
+            while (iterator.hasNext()) {
+                WatchedRef ref = iterator.next();
+                if (gcCount - ref.gcCountAtWatch >= gcThreshold) {
+                    iterator.remove();
+                    leaked.add(ref);
+                }
+            }
+        }
+
+        for (WatchedRef ref : leaked) {
+            Object scopeObject = ref.get();
+            if (scopeObject != null) {
+                report(scopeObject, ref);
+            }
+        }
+    }
+
+    private void report(@NonNull Object scopeObject, @NonNull WatchedRef ref) {
+        List<CacheKey> keys = FuelInjector.get().isInitialized()
+                ? FuelInjector.get().getRootModule().getCachedKeys(ref.scope, scopeObject)
+                : new ArrayList<CacheKey>();
+
+        OnScopeLeakListener listener = this.listener;
+        if (listener != null) {
+            listener.onScopeLeaked(scopeObject, ref.scope, keys);
+            return;
+        }
+
+        FuelScopeLeakException leak = new FuelScopeLeakException(
+                "Fuel Scope Leak: %s scope %s survived %s GCs after its scope ended, still caching %s",
+                ref.scope, ref.description, gcThreshold, keys);
+        try {
+            if (FuelInjector.get().isInitialized()) {
+                FuelInjector.get().getRootModule().onFailure(null, leak);
+            } else {
+                FLog.e(leak);
+            }
+        } catch (Exception e) {
+            // onFailure throws by default, that's not going to stop the watcher
+            FLog.e(e);
+        }
+    }
+}
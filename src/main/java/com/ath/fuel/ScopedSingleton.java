@@ -0,0 +1,13 @@
+package com.ath.fuel;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * One instance per run of a {@link CustomScope}, released when the scope ends.<br>
+ * The value is the key the scope was declared with.
+ */
+@Retention( RetentionPolicy.RUNTIME /* Reflectively read by the VM at runtime */ )
+public @interface ScopedSingleton {
+    Class<?> value();
+}
@@ -0,0 +1,79 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rough shallow-size math for an object: header + declared instance fields, 8 byte aligned.<br>
+ * Assumes compressed references (4 bytes) which is what ART and 64bit HotSpot w/ small heaps do.<br>
+ * It does not follow references -- it tells you how big the object itself is, not what it retains.<br>
+ * Good enough to rank scopes against each other, do not treat it as a measurement.
+ */
+final class ShallowSizeEstimator {
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final Map<Class<?>, Long> classSizeCache = new HashMap<>();
+
+    private ShallowSizeEstimator() {
+    }
+
+    static long estimate(@Nullable Object object) {
+        if (object == null) {
+            return 0;
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = java.lang.reflect.Array.getLength(object);
+            return align(ARRAY_HEADER + (long) length * sizeOf(type.getComponentType()));
+        }
+        synchronized (classSizeCache) {
+            Long size = classSizeCache.get(type);
+            if (size == null) {
+                size = align(OBJECT_HEADER + fieldBytes(type));
+                classSizeCache.put(type, size);
+            }
+            return size;
+        }
+    }
+
+    private static long fieldBytes(@NonNull Class<?> type) {
+        long bytes = 0;
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        bytes += sizeOf(field.getType());
+                    }
+                }
+            } catch (Exception | LinkageError e) {
+                // Some framework classes refuse to be introspected, count what we have
+            }
+        }
+        return bytes;
+    }
+
+    private static int sizeOf(@NonNull Class<?> type) {
+        if (!type.isPrimitive()) {
+            return REFERENCE;
+        } else if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1; // byte, boolean
+    }
+
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
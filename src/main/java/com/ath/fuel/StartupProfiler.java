@@ -0,0 +1,211 @@
+package com.ath.fuel;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in profile guided warmup, like a baseline profile for the dependency graph.<br>
+ * <br>
+ * For the first {@link #getRecordMillis()} after {@link FuelInjector#ignite(Application, FuelModule)} every type resolved is
+ * recorded in order of first use, with its scope and the Activity it was resolved for, and then written to the given file.
+ * On the next start a background thread walks the previous recording ahead of the main thread: it loads and resolves every
+ * type and constructs the AppSingletons, so by the time the main thread asks they're waiting in the cache.<br>
+ * The recording is rewritten every start so it follows the app as features change, types that no longer exist are skipped.<br>
+ * <br>
+ * NOTE:<br>
+ * Recorded AppSingletons are constructed off the main thread, their constructors must not require it.<br>
+ * <br>
+ * Enable with {@link FuelModule#setStartupProfiler(StartupProfiler)} before ignite.
+ */
+public final class StartupProfiler {
+
+    private static final String HEADER = "fuel-startup-profile 1";
+    private static final String NO_FLAVOR = "-";
+
+    /** One recorded resolution, a line of the file */
+    static final class Entry {
+        final @NonNull String type; // as requested, not the leaf -- the leaf of an instance binding can't be attained
+        final @Nullable Integer flavor;
+        final @NonNull Scope scope;
+        final @Nullable String activity; // the Activity it was resolved for, null when not under one
+        final long firstUseMillis; // since recording began
+
+        Entry(@NonNull String type, @Nullable Integer flavor, @NonNull Scope scope, @Nullable String activity, long firstUseMillis) {
+            this.type = type;
+            this.flavor = flavor;
+            this.scope = scope;
+            this.activity = activity;
+            this.firstUseMillis = firstUseMillis;
+        }
+    }
+
+    private final @NonNull File file;
+    private final long recordMillis;
+    private final @NonNull Map<String, Entry> recorded = new LinkedHashMap<>(); // type#flavor -> first use, guarded by itself
+    private volatile long startMillis;
+    private volatile boolean recording = false;
+    private volatile Thread thread;
+
+    /**
+     * @param file         where the recording is kept, ex: new File(app.getNoBackupFilesDir(), "fuel_startup_profile")
+     * @param recordMillis how long after ignite to record
+     */
+    public StartupProfiler(@NonNull File file, long recordMillis) {
+        if (recordMillis < 1) {
+            throw new IllegalArgumentException("recordMillis must be at least 1 but was " + recordMillis);
+        }
+        this.file = file;
+        this.recordMillis = recordMillis;
+    }
+
+    public long getRecordMillis() {
+        return recordMillis;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Warm up from the previous recording and start a new one.<br>
+     * Called once the Application is ignited, so the warmup can attain against it.
+     */
+    void start(@NonNull final Application app) {
+        synchronized (recorded) {
+            if (thread != null) {
+                return;
+            }
+            startMillis = System.currentTimeMillis();
+            recording = true;
+            thread = new Thread(new Runnable() {
+                @Override public void run() {
+                    ThreadPolicy.allowCurrentThread(); // warming up off the main thread is the point
+                    warmup(app, read(file));
+                    finishRecording();
+                }
+            }, "FuelStartupProfiler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /** First resolution of a type, from attainInstance -- cheap once recording is over */
+    void record(@NonNull Lazy<?> lazy, @NonNull Context context) {
+        if (!recording || Thread.currentThread() == thread) {
+            return; // the warmup's own resolutions say nothing about the app
+        }
+        long now = System.currentTimeMillis() - startMillis;
+        if (now > recordMillis) {
+            return;
+        }
+        String key = lazy.getType().getName() + "#" + lazy.getFlavor();
+        synchronized (recorded) {
+            if (!recorded.containsKey(key)) {
+                String activity = context instanceof Activity ? context.getClass().getName() : null;
+                recorded.put(key, new Entry(lazy.getType().getName(), lazy.getFlavor(), lazy.getScope(), activity, now));
+            }
+        }
+    }
+
+    private void warmup(@NonNull Application app, @NonNull List<Entry> entries) {
+        FuelInjector injector = FuelInjector.get();
+        for (Entry entry : entries) { // written in order of first use
+            try {
+                Class<?> type = Class.forName(entry.type, true, StartupProfiler.class.getClassLoader());
+                Class<?> leafType = injector.getRootModule().toLeafType(type, entry.flavor);
+                if (!leafType.isInterface()) {
+                    InjectionPlan.of(leafType);
+                }
+                if (Scope.Application.equals(entry.scope) && injector.isAppSingleton(leafType)) {
+                    Lazy.attain(app, type, entry.flavor).get();
+                }
+            } catch (ClassNotFoundException e) {
+                // gone since it was recorded, next recording won't have it
+            } catch (Exception e) {
+                FLog.w("StartupProfiler unable to warm up %s: %s", entry.type, e.getMessage());
+            }
+        }
+    }
+
+    private void finishRecording() {
+        try {
+            long remaining = startMillis + recordMillis - System.currentTimeMillis();
+            if (remaining > 0) {
+                Thread.sleep(remaining);
+            }
+        } catch (InterruptedException e) {
+            FLog.e(e);
+        }
+        List<Entry> entries;
+        synchronized (recorded) {
+            recording = false;
+            entries = new ArrayList<>(recorded.values());
+            recorded.clear();
+        }
+        write(file, entries);
+    }
+
+    static @NonNull List<Entry> read(@NonNull File file) {
+        List<Entry> entries = new ArrayList<>();
+        if (!file.exists()) {
+            return entries;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
+            if (!HEADER.equals(reader.readLine())) {
+                return entries; // older format or garbage, a new recording replaces it
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 5) {
+                    continue;
+                }
+                entries.add(new Entry(fields[0],
+                        NO_FLAVOR.equals(fields[1]) ? null : Integer.valueOf(fields[1]),
+                        Scope.valueOf(fields[2]),
+                        fields[3].isEmpty() ? null : fields[3],
+                        Long.parseLong(fields[4])));
+            }
+        } catch (Exception e) {
+            FLog.w("StartupProfiler unable to read %s: %s", file, e.getMessage());
+        }
+        return entries;
+    }
+
+    /** Written to a temp file and renamed over the old one so a crash mid-write never leaves half a recording */
+    static void write(@NonNull File file, @NonNull List<Entry> entries) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"))) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (Entry entry : entries) {
+                writer.write(entry.type + "\t" + (entry.flavor == null ? NO_FLAVOR : entry.flavor) + "\t" + entry.scope + "\t"
+                        + (entry.activity == null ? "" : entry.activity) + "\t" + entry.firstUseMillis + "\n");
+            }
+        } catch (IOException e) {
+            FLog.w("StartupProfiler unable to write %s: %s", file, e.getMessage());
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            FLog.w("StartupProfiler unable to replace %s", file);
+        }
+    }
+}
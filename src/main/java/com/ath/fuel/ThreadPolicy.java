@@ -0,0 +1,226 @@
+package com.ath.fuel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ath.fuel.err.FuelThreadPolicyException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in policing of Lazies attained off the main thread.<br>
+ * <br>
+ * Finding who attained means walking the stack, far too slow to do on every attain in production. So this policy only
+ * counts off main thread attains and walks the stack for 1 in {@link #getSampleRate()} of them, aggregating the samples by
+ * call site and reporting them every {@link #getReportMillis()}. A main thread attain costs one thread id comparison.<br>
+ * <br>
+ * Modes, changeable at any time, ex: from remote config:<br>
+ * - {@link Mode#Off} nothing is checked<br>
+ * - {@link Mode#Sampled} 1 in N off main thread attains is recorded by call site<br>
+ * - {@link Mode#Strict} every off main thread attain is recorded and fails with a {@link FuelThreadPolicyException}<br>
+ * <br>
+ * Reported via {@link OnThreadPolicyReportListener} when set, otherwise logged.<br>
+ * <br>
+ * Enable with {@link FuelModule#setThreadPolicy(ThreadPolicy)}. A policy only reports while it is the module's, replacing it
+ * stops its reporting thread after a last report.
+ */
+public final class ThreadPolicy {
+
+    public enum Mode {
+        Off, Sampled, Strict
+    }
+
+    public interface OnThreadPolicyReportListener {
+        /**
+         * Called from the reporting thread with what was sampled since the last report, never empty.
+         *
+         * @param samplesByCallSite call site (the first frame outside of Fuel) to how many times it was sampled
+         * @param sampleRate        1 in how many off main thread attains were sampled, multiply to estimate the real count
+         */
+        void onThreadPolicyReport(@NonNull Map<String, Long> samplesByCallSite, int sampleRate);
+    }
+
+    // Fuel's own background work, ex: the StartupProfiler warmup, is not a violation
+    private static final ThreadLocal<Boolean> allowed = new ThreadLocal<>();
+    private static final String PACKAGE = ThreadPolicy.class.getPackage().getName();
+
+    private volatile @NonNull Mode mode;
+    private final int sampleRate;
+    private final long reportMillis;
+    private final @NonNull AtomicLong offMainThreadAttains = new AtomicLong();
+    private final @NonNull Map<String, AtomicLong> samples = new ConcurrentHashMap<>(); // call site -> count since last report
+    private volatile @Nullable OnThreadPolicyReportListener listener;
+    private volatile Thread thread; // written under samples
+    private boolean installed; // guarded by samples, the module's policy, so it may report
+
+    /**
+     * @param mode         see {@link #setMode(Mode)}
+     * @param sampleRate   record 1 in this many off main thread attains when {@link Mode#Sampled}, 1 for all of them
+     * @param reportMillis how often to report what was recorded
+     */
+    public ThreadPolicy(@NonNull Mode mode, int sampleRate, long reportMillis) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate must be at least 1 but was " + sampleRate);
+        }
+        if (reportMillis < 1) {
+            throw new IllegalArgumentException("reportMillis must be at least 1 but was " + reportMillis);
+        }
+        this.mode = mode;
+        this.sampleRate = sampleRate;
+        this.reportMillis = reportMillis;
+    }
+
+    public @NonNull Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(@NonNull Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getReportMillis() {
+        return reportMillis;
+    }
+
+    public void setListener(@Nullable OnThreadPolicyReportListener listener) {
+        this.listener = listener;
+    }
+
+    /** How many off main thread attains were counted while not {@link Mode#Off}, sampled or not */
+    public long getOffMainThreadAttainCount() {
+        return offMainThreadAttains.get();
+    }
+
+    /** Attains made on the calling thread from here on are Fuel's own and never violate the policy */
+    static void allowCurrentThread() {
+        allowed.set(Boolean.TRUE);
+    }
+
+    /** This became the module's policy, it reports from here on */
+    void install() {
+        synchronized (samples) {
+            installed = true;
+        }
+    }
+
+    /** This is no longer the module's policy, its reporting thread reports what is left and ends */
+    void uninstall() {
+        synchronized (samples) {
+            installed = false;
+            if (thread != null) {
+                thread.interrupt();
+                thread = null;
+            }
+        }
+    }
+
+    /** Called off the main thread for every Lazy attained */
+    void onOffMainThreadAttain(@NonNull Lazy<?> lazy) throws FuelThreadPolicyException {
+        Mode mode = this.mode;
+        if (mode == Mode.Off || allowed.get() != null) {
+            return;
+        }
+        long count = offMainThreadAttains.incrementAndGet();
+        if (mode == Mode.Sampled && count % sampleRate != 0) {
+            return;
+        }
+
+        String callSite = findCallSite();
+        record(callSite);
+        if (mode == Mode.Strict) {
+            throw new FuelThreadPolicyException("Attain %s off the main thread from %s", lazy.getType().getName(), callSite);
+        }
+    }
+
+    private void record(@NonNull String callSite) {
+        AtomicLong count = samples.get(callSite);
+        if (count == null || thread == null) { // a new call site, or no reporting thread since this was installed again
+            synchronized (samples) {
+                count = samples.get(callSite);
+                if (count == null) {
+                    count = new AtomicLong();
+                    samples.put(callSite, count);
+                }
+                if (thread == null && installed) { // a replaced policy still seen by an attain in flight starts nothing
+                    thread = new Thread(new Runnable() {
+                        @Override public void run() {
+                            reportLoop();
+                        }
+                    }, "FuelThreadPolicy");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private void reportLoop() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            try {
+                Thread.sleep(reportMillis);
+                report();
+            } catch (InterruptedException e) {
+                try {
+                    report(); // uninstalled, what was sampled since the last report is not lost
+                } catch (Exception re) {
+                    FLog.e(re, "ThreadPolicy report failed");
+                }
+                return;
+            } catch (Exception e) {
+                FLog.e(e, "ThreadPolicy report failed");
+            }
+        }
+    }
+
+    private void report() {
+        Map<String, Long> report = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : samples.entrySet()) {
+            long count = entry.getValue().getAndSet(0); // the entry stays, call sites are few and tend to repeat
+            if (count > 0) {
+                report.put(entry.getKey(), count);
+            }
+        }
+        if (report.isEmpty()) {
+            return;
+        }
+
+        OnThreadPolicyReportListener listener = this.listener;
+        if (listener != null) {
+            listener.onThreadPolicyReport(Collections.unmodifiableMap(report), sampleRate);
+        } else {
+            for (Map.Entry<String, Long> entry : report.entrySet()) {
+                FLog.w("ThreadPolicy: ~%d attains off the main thread from %s", entry.getValue() * sampleRate, entry.getKey());
+            }
+        }
+    }
+
+    /** The first frame outside of Fuel, whoever attained -- Fuel's own attains (ex: constructor arguments) are charged to them */
+    private static @NonNull String findCallSite() {
+        StackTraceElement[] elems = Thread.currentThread().getStackTrace();
+        boolean inFuel = false;
+        for (StackTraceElement elem : elems) {
+            boolean isFuel = isFuel(elem.getClassName());
+            if (isFuel) {
+                inFuel = true;
+            } else if (inFuel) {
+                return elem.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    /** Fuel's own package, not its subpackages nor anybody else's */
+    private static boolean isFuel(@NonNull String className) {
+        return className.startsWith(PACKAGE) && className.lastIndexOf('.') == PACKAGE.length();
+    }
+}
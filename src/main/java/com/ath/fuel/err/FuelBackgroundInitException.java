@@ -0,0 +1,22 @@
+package com.ath.fuel.err;
+
+/**
+ * Thrown when the main thread gave up waiting on, or was interrupted waiting on, the background construction of a
+ * BackgroundInit singleton.<br>
+ * See com.ath.fuel.BackgroundInitializer
+ */
+@SuppressWarnings("serial")
+public class FuelBackgroundInitException extends FuelInjectionException {
+
+    public FuelBackgroundInitException(Exception exception) {
+        super(exception);
+    }
+
+    public FuelBackgroundInitException(String format, Object... objects) {
+        super(String.format(format, objects));
+    }
+
+    public FuelBackgroundInitException(Exception exception, String format, Object... objects) {
+        super(String.format(format, objects), exception);
+    }
+}
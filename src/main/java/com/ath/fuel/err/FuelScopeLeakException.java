@@ -0,0 +1,22 @@
+package com.ath.fuel.err;
+
+/**
+ * Reported when a scope object (Activity, ViewRoot) is still reachable long after its scope ended.<br>
+ * Everything cached against that scope object is leaking along with it.<br>
+ * See com.ath.fuel.ScopeLeakWatcher
+ */
+@SuppressWarnings("serial")
+public class FuelScopeLeakException extends FuelInjectionException {
+
+    public FuelScopeLeakException(Exception exception) {
+        super(exception);
+    }
+
+    public FuelScopeLeakException(String format, Object... objects) {
+        super(String.format(format, objects));
+    }
+
+    public FuelScopeLeakException(Exception exception, String format, Object... objects) {
+        super(String.format(format, objects), exception);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ath.fuel.err;
+
+/**
+ * Thrown when a Lazy is attained off the main thread while the thread policy is strict.<br>
+ * See com.ath.fuel.ThreadPolicy
+ */
+@SuppressWarnings("serial")
+public class FuelThreadPolicyException extends FuelInjectionException {
+
+    public FuelThreadPolicyException(Exception exception) {
+        super(exception);
+    }
+
+    public FuelThreadPolicyException(String format, Object... objects) {
+        super(String.format(format, objects));
+    }
+
+    public FuelThreadPolicyException(Exception exception, String format, Object... objects) {
+        super(String.format(format, objects), exception);
+    }
+}